@@ -0,0 +1,70 @@
+package com.oraxus.gateway.bench;
+
+import com.oraxus.gateway.controller.AuthController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON binding of the auth DTOs with readers and writers resolved once, as the HTTP message converters do.
+ * Token-sized strings keep the response payload close to what Cognito returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthJsonBenchmark {
+
+    private ObjectReader loginRequestReader;
+    private ObjectReader verifyRequestReader;
+    private ObjectWriter loginResponseWriter;
+    private byte[] loginRequest;
+    private byte[] verifyRequest;
+    private AuthController.LoginResponse loginResponse;
+
+    @Setup
+    public void setUp() {
+        JsonMapper mapper = JsonMapper.builder().build();
+        loginRequestReader = mapper.readerFor(AuthController.LoginRequest.class);
+        verifyRequestReader = mapper.readerFor(AuthController.VerifyRequest.class);
+        loginResponseWriter = mapper.writerFor(AuthController.LoginResponse.class);
+
+        loginRequest = """
+                {"username":"player.one@example.com","password":"correct horse battery staple","platform":"web"}"""
+                .getBytes(StandardCharsets.UTF_8);
+        verifyRequest = ("{\"username\":\"player.one@example.com\",\"session\":\"" + "s".repeat(900)
+                + "\",\"code\":\"123456\",\"platform\":\"mobile\"}").getBytes(StandardCharsets.UTF_8);
+        loginResponse = new AuthController.LoginResponse(true,
+                "a".repeat(1100), "i".repeat(1200), "r".repeat(1700), null, null, null);
+    }
+
+    @Benchmark
+    public AuthController.LoginRequest readLoginRequest() {
+        return loginRequestReader.readValue(loginRequest);
+    }
+
+    @Benchmark
+    public AuthController.VerifyRequest readVerifyRequest() {
+        return verifyRequestReader.readValue(verifyRequest);
+    }
+
+    @Benchmark
+    public byte[] writeLoginResponse() {
+        return loginResponseWriter.writeValueAsBytes(loginResponse);
+    }
+}
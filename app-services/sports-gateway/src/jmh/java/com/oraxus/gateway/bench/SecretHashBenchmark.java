@@ -0,0 +1,70 @@
+package com.oraxus.gateway.bench;
+
+import com.oraxus.gateway.service.CognitoAppClients;
+import com.oraxus.gateway.service.SecretHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SECRET_HASH computation and app client selection, done once or twice per auth request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecretHashBenchmark {
+    private static final String CLIENT_ID = "49hds50vnolll72jteqkpr6e5";
+    private static final String CLIENT_SECRET = "1example2client3secret4for5benchmarks6only7";
+    private static final String USERNAME = "player.one@example.com";
+
+    private SecretHasher hasher;
+    private CognitoAppClients clients;
+
+    @Setup
+    public void setUp() {
+        hasher = new SecretHasher(CLIENT_ID, CLIENT_SECRET);
+        clients = new CognitoAppClients(null, CLIENT_ID, "mobile-client-id", CLIENT_SECRET, CLIENT_SECRET);
+    }
+
+    /**
+     * Baseline: a fresh key and Mac per call, as the hash was computed before it was precomputed per client.
+     */
+    @Benchmark
+    public String secretHashPerCallMac() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(CLIENT_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        mac.update(USERNAME.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(mac.doFinal(CLIENT_ID.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public String secretHash() {
+        return hasher.hash(USERNAME);
+    }
+
+    @Benchmark
+    public String resolveClientAndHash() {
+        return clients.resolve("mobile").secretHash(USERNAME);
+    }
+
+    @Benchmark
+    public CognitoAppClients.AppClient resolveClient() {
+        return clients.resolve("web");
+    }
+}
@@ -0,0 +1,66 @@
+package com.oraxus.gateway.load;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Answers the Cognito user pool calls the gateway makes over the AWS JSON 1.1 protocol: the operation comes from
+ * the {@code X-Amz-Target} header. A share of calls fails with an injected 500 or throttling error.
+ */
+final class FakeCognito extends FakeServer {
+    private static final String CONTENT_TYPE = "application/x-amz-json-1.1";
+    private static final String TOKENS = """
+            {"AuthenticationResult":{"AccessToken":"%1$s","IdToken":"%1$s","RefreshToken":"%1$s",\
+            "ExpiresIn":3600,"TokenType":"Bearer"},"ChallengeParameters":{}}""".formatted("t".repeat(1000));
+
+    private final double errorRate;
+    private final double throttleRate;
+    private final LongAdder injectedErrors = new LongAdder();
+
+    FakeCognito(Duration latency, Duration jitter, double errorRate, double throttleRate) throws IOException {
+        super(latency, jitter);
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+    }
+
+    long injectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String body) throws IOException {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < errorRate) {
+            injectedErrors.increment();
+            error(exchange, 500, "InternalErrorException", "Injected failure");
+            return;
+        }
+        if (roll < errorRate + throttleRate) {
+            injectedErrors.increment();
+            error(exchange, 400, "TooManyRequestsException", "Injected throttling");
+            return;
+        }
+
+        String target = exchange.getRequestHeaders().getFirst("X-Amz-Target");
+        String operation = target == null ? "" : target.substring(target.indexOf('.') + 1);
+        switch (operation) {
+            case "AdminInitiateAuth" -> respond(exchange, 200, CONTENT_TYPE, body.contains("\"CUSTOM_AUTH\"")
+                    ? "{\"ChallengeName\":\"CUSTOM_CHALLENGE\",\"Session\":\"" + "s".repeat(900) + "\",\"ChallengeParameters\":{}}"
+                    : TOKENS);
+            case "AdminRespondToAuthChallenge" -> respond(exchange, 200, CONTENT_TYPE, TOKENS);
+            case "AdminCreateUser" -> respond(exchange, 200, CONTENT_TYPE,
+                    "{\"User\":{\"Username\":\"loadtest\",\"Enabled\":true,\"UserStatus\":\"FORCE_CHANGE_PASSWORD\"}}");
+            case "AdminSetUserPassword" -> respond(exchange, 200, CONTENT_TYPE, "{}");
+            default -> error(exchange, 400, "UnknownOperationException", "Unsupported operation " + operation);
+        }
+    }
+
+    private static void error(HttpExchange exchange, int status, String type, String message) throws IOException {
+        exchange.getResponseHeaders().set("x-amzn-ErrorType", type);
+        respond(exchange, status, CONTENT_TYPE, "{\"__type\":\"" + type + "\",\"message\":\"" + message + "\"}");
+    }
+}
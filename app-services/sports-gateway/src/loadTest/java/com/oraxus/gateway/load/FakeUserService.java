@@ -0,0 +1,25 @@
+package com.oraxus.gateway.load;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Accepts the gateway's ensure batches on {@code /api/users/ensure} without storing anything.
+ */
+final class FakeUserService extends FakeServer {
+
+    FakeUserService(Duration latency) throws IOException {
+        super(latency, Duration.ZERO);
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String body) throws IOException {
+        if (!"/api/users/ensure".equals(exchange.getRequestURI().getPath())) {
+            respond(exchange, 404, "application/json", "{}");
+            return;
+        }
+        respond(exchange, 200, "application/json", "{\"requested\":0,\"created\":0}");
+    }
+}
@@ -0,0 +1,42 @@
+package com.oraxus.gateway.load;
+
+import java.util.Arrays;
+
+/**
+ * Collects latencies of one scenario. Latency is measured from the intended send time, so a gateway that falls
+ * behind is charged for the queueing it causes instead of silently slowing the driver down.
+ */
+final class LatencyRecorder {
+    private long[] samples = new long[4096];
+    private int count;
+    private long errors;
+
+    synchronized void record(long nanos, boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, errors);
+    }
+
+    record Snapshot(long[] sortedNanos, long errors) {
+
+        int count() {
+            return sortedNanos.length;
+        }
+
+        double percentileMillis(double p) {
+            if (sortedNanos.length == 0) return Double.NaN;
+            int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+            return sortedNanos[Math.clamp(index, 0, sortedNanos.length - 1)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.oraxus.gateway.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load test settings, read from {@code loadTest.*} system properties (the Gradle task forwards
+ * {@code -PloadTest.*} project properties).
+ */
+record LoadSettings(
+        int rate,
+        Duration warmup,
+        Duration duration,
+        Scenario[] mix,
+        int users,
+        Duration cognitoLatency,
+        Duration cognitoJitter,
+        double cognitoErrorRate,
+        double cognitoThrottleRate,
+        Duration userServiceLatency,
+        boolean asyncCognito,
+        boolean virtualThreads,
+        boolean rateLimit) {
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Integer.parseInt(property("rate", "200")),
+                duration(property("warmup", "5s")),
+                duration(property("duration", "30s")),
+                mix(property("mix", "start:1,verify:1,login:2")),
+                Integer.parseInt(property("users", "100000")),
+                duration(property("cognitoLatency", "50ms")),
+                duration(property("cognitoJitter", "20ms")),
+                Double.parseDouble(property("cognitoErrorRate", "0")),
+                Double.parseDouble(property("cognitoThrottleRate", "0")),
+                duration(property("userServiceLatency", "10ms")),
+                Boolean.parseBoolean(property("async", "false")),
+                Boolean.parseBoolean(property("virtualThreads", "false")),
+                Boolean.parseBoolean(property("rateLimit", "false")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadTest." + name, defaultValue);
+    }
+
+    /**
+     * Parses {@code 250ms}, {@code 30s} or {@code 2m}.
+     */
+    static Duration duration(String value) {
+        String v = value.trim();
+        if (v.endsWith("ms")) return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        if (v.endsWith("s")) return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        if (v.endsWith("m")) return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        return Duration.ofMillis(Long.parseLong(v));
+    }
+
+    /**
+     * Expands {@code start:1,login:2} into the request sequence the driver cycles through.
+     */
+    static Scenario[] mix(String value) {
+        List<Scenario> sequence = new ArrayList<>();
+        for (String part : value.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            Scenario scenario = Scenario.valueOf(nameAndWeight[0].trim().toUpperCase());
+            int weight = nameAndWeight.length > 1 ? Integer.parseInt(nameAndWeight[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                sequence.add(scenario);
+            }
+        }
+        return sequence.toArray(Scenario[]::new);
+    }
+}
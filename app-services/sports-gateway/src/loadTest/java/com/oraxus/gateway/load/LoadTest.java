@@ -0,0 +1,141 @@
+package com.oraxus.gateway.load;
+
+import com.oraxus.gateway.SportsGatewayApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the gateway against {@link FakeCognito} and {@link FakeUserService} and sends auth requests at a fixed
+ * arrival rate (open loop: the schedule does not wait for responses), then prints throughput and latency
+ * percentiles per endpoint. Run with {@code ./gradlew loadTest}; see {@link LoadSettings} for the knobs.
+ */
+public final class LoadTest {
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        // The SDK signs requests even for an overridden endpoint
+        System.setProperty("aws.accessKeyId", "loadtest");
+        System.setProperty("aws.secretAccessKey", "loadtest");
+
+        try (FakeCognito cognito = new FakeCognito(settings.cognitoLatency(), settings.cognitoJitter(),
+                settings.cognitoErrorRate(), settings.cognitoThrottleRate());
+             FakeUserService userService = new FakeUserService(settings.userServiceLatency());
+             ConfigurableApplicationContext gateway = startGateway(settings, cognito.uri(), userService.uri());
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+
+            int port = gateway.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            URI base = URI.create("http://localhost:" + port);
+
+            System.out.printf("Warming up for %s at %d req/s%n", settings.warmup(), settings.rate());
+            run(client, base, settings, settings.warmup());
+            System.out.printf("Measuring for %s at %d req/s%n", settings.duration(), settings.rate());
+            Run result = run(client, base, settings, settings.duration());
+
+            report(settings, result);
+            System.out.printf("%nFake Cognito: %d calls, %d injected errors; fake user service: %d ensure batches%n",
+                    cognito.requestCount(), cognito.injectedErrors(), userService.requestCount());
+        }
+    }
+
+    private static ConfigurableApplicationContext startGateway(LoadSettings settings, URI cognito, URI userService) {
+        return new SpringApplicationBuilder(SportsGatewayApplication.class)
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "cognito.endpoint=" + cognito,
+                        "cognito.region=us-east-1",
+                        "cognito.userPoolId=us-east-1_loadtest",
+                        "cognito.clientIdWeb=loadtest-web",
+                        "cognito.clientIdMobile=loadtest-mobile",
+                        "cognito.async.enabled=" + settings.asyncCognito(),
+                        "spring.threads.virtual.enabled=" + settings.virtualThreads(),
+                        "ratelimit.enabled=" + settings.rateLimit(),
+                        "user-service.url=" + userService)
+                .run();
+    }
+
+    private static Run run(HttpClient client, URI base, LoadSettings settings, Duration duration) throws InterruptedException {
+        Map<Scenario, LatencyRecorder> recorders = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            recorders.put(scenario, new LatencyRecorder());
+        }
+        Scenario[] mix = settings.mix();
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long total = duration.toNanos() / interval;
+        AtomicLong outstanding = new AtomicLong();
+        long late = 0;
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * interval;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else if (wait < -TimeUnit.MILLISECONDS.toNanos(1)) {
+                late++;
+            }
+            Scenario scenario = mix[(int) (i % mix.length)];
+            LatencyRecorder recorder = recorders.get(scenario);
+            outstanding.incrementAndGet();
+            client.sendAsync(scenario.request(base, (int) (i % settings.users())), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, t) -> {
+                        recorder.record(System.nanoTime() - intended,
+                                t == null && Scenario.isSuccess(response.statusCode(), response.body()));
+                        outstanding.decrementAndGet();
+                    });
+        }
+
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return new Run(recorders, duration, late, outstanding.get());
+    }
+
+    private static void report(LoadSettings settings, Run run) {
+        System.out.printf("%nTarget %d req/s, cognito latency %s (+%s jitter), error rate %.3f, throttle rate %.3f, "
+                        + "async=%s, virtualThreads=%s%n",
+                settings.rate(), settings.cognitoLatency(), settings.cognitoJitter(), settings.cognitoErrorRate(),
+                settings.cognitoThrottleRate(), settings.asyncCognito(), settings.virtualThreads());
+        System.out.printf("%-8s %9s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        double seconds = run.duration().toNanos() / 1e9;
+        run.recorders().forEach((scenario, recorder) -> {
+            LatencyRecorder.Snapshot s = recorder.snapshot();
+            if (s.count() == 0) {
+                return;
+            }
+            System.out.printf("%-8s %9d %8d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    scenario.name().toLowerCase(), s.count(), s.errors(), s.count() / seconds,
+                    s.percentileMillis(0.50), s.percentileMillis(0.90), s.percentileMillis(0.99),
+                    s.percentileMillis(0.999), s.percentileMillis(1.0));
+        });
+        if (run.late() > 0) {
+            System.out.printf("Driver fell more than 1 ms behind schedule on %d sends; results understate the load%n", run.late());
+        }
+        if (run.unfinished() > 0) {
+            System.out.printf("%d requests had not completed %s after the last send%n", run.unfinished(), DRAIN_TIMEOUT);
+        }
+    }
+
+    private record Run(Map<Scenario, LatencyRecorder> recorders, Duration duration, long late, long unfinished) {
+    }
+}
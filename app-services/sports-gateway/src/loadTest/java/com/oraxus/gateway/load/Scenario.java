@@ -0,0 +1,48 @@
+package com.oraxus.gateway.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+
+/**
+ * The auth requests the driver sends. A request counts as successful on a 200 whose body does not report
+ * {@code "success":false}.
+ */
+enum Scenario {
+    START("/auth/start") {
+        @Override
+        String body(String username) {
+            return "{\"username\":\"" + username + "\",\"platform\":\"web\"}";
+        }
+    },
+    VERIFY("/auth/verify") {
+        @Override
+        String body(String username) {
+            return "{\"username\":\"" + username + "\",\"session\":\"session\",\"code\":\"123456\",\"platform\":\"web\"}";
+        }
+    },
+    LOGIN("/auth/login") {
+        @Override
+        String body(String username) {
+            return "{\"username\":\"" + username + "\",\"password\":\"Passw0rd!\",\"platform\":\"mobile\"}";
+        }
+    };
+
+    private final String path;
+
+    Scenario(String path) {
+        this.path = path;
+    }
+
+    abstract String body(String username);
+
+    HttpRequest request(URI base, int user) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body("user" + user + "@example.com")))
+                .build();
+    }
+
+    static boolean isSuccess(int status, String body) {
+        return status == 200 && !body.contains("\"success\":false");
+    }
+}
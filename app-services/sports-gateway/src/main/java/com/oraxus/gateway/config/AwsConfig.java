@@ -1,24 +1,97 @@
 package com.oraxus.gateway.config;
 
 import com.oraxus.gateway.config.properties.CognitoProperties;
+import com.oraxus.gateway.config.properties.ResilienceProperties;
+import com.oraxus.gateway.service.CognitoClients;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 
 @Configuration
 public class AwsConfig {
 
     private final CognitoProperties cognitoProperties;
+    private final ResilienceProperties resilienceProperties;
 
-    public AwsConfig(CognitoProperties cognitoProperties) {
+    public AwsConfig(CognitoProperties cognitoProperties, ResilienceProperties resilienceProperties) {
         this.cognitoProperties = cognitoProperties;
+        this.resilienceProperties = resilienceProperties;
     }
 
+    /**
+     * Shared by all SDK clients and exposed as a bean so the credential chain can be resolved during startup
+     * (see {@code StartupWarmup}) rather than on the first Cognito call.
+     */
     @Bean
-    public CognitoIdentityProviderClient cognitoClient() {
-        return CognitoIdentityProviderClient.builder()
-                .region(Region.of(cognitoProperties.getRegion()))
+    public AwsCredentialsProvider awsCredentialsProvider() {
+        return DefaultCredentialsProvider.create();
+    }
+
+    /**
+     * The blocking clients' connection pool, shared by every region.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "cognito.async", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public SdkHttpClient cognitoHttpClient() {
+        CognitoProperties.Sync sync = cognitoProperties.getSync();
+        return ApacheHttpClient.builder()
+                .maxConnections(sync.getMaxConnections())
+                .connectionAcquisitionTimeout(sync.getConnectionAcquisitionTimeout())
+                .connectionTimeToLive(sync.getConnectionTimeToLive())
+                .tcpKeepAlive(true)
+                .build();
+    }
+
+    /**
+     * The non-blocking clients' connection pool and event loop, shared by every region.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "cognito.async", name = "enabled", havingValue = "true")
+    public SdkAsyncHttpClient cognitoAsyncHttpClient() {
+        CognitoProperties.Async async = cognitoProperties.getAsync();
+        return NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(async.getMaxConcurrency())
+                .maxPendingConnectionAcquires(async.getMaxPendingConnectionAcquires())
+                .connectionAcquisitionTimeout(async.getConnectionAcquisitionTimeout())
+                .connectionTimeToLive(async.getConnectionTimeToLive())
+                .connectionMaxIdleTime(async.getConnectionMaxIdleTime())
+                .tcpKeepAlive(true)
                 .build();
     }
+
+    @Bean(destroyMethod = "close")
+    public CognitoClients cognitoClients(AwsCredentialsProvider credentialsProvider,
+                                         ObjectProvider<SdkHttpClient> cognitoHttpClient,
+                                         ObjectProvider<SdkAsyncHttpClient> cognitoAsyncHttpClient) {
+        return new CognitoClients(credentialsProvider,
+                cognitoHttpClient.getIfAvailable(),
+                cognitoAsyncHttpClient.getIfAvailable(),
+                cognitoProperties.getEndpoint(),
+                // Blocking calls cannot be timed out by the circuit breaker, so bound them here
+                resilienceProperties.getCognito().getMaxTimeout());
+    }
+
+    /**
+     * The default tenant's region; other regions are looked up in {@link CognitoClients} when first used.
+     */
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(prefix = "cognito.async", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public CognitoIdentityProviderClient cognitoClient(CognitoClients cognitoClients) {
+        return cognitoClients.sync(cognitoProperties.getRegion());
+    }
+
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(prefix = "cognito.async", name = "enabled", havingValue = "true")
+    public CognitoIdentityProviderAsyncClient cognitoAsyncClient(CognitoClients cognitoClients) {
+        return cognitoClients.async(cognitoProperties.getRegion());
+    }
 }
@@ -0,0 +1,35 @@
+package com.oraxus.gateway.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+/**
+ * Lets clients ask for CBOR ({@code Accept: application/cbor}) instead of JSON, and send CBOR request bodies.
+ * JSON stays the default. The converter uses one shared {@link CBORMapper} so serializers are built once per type
+ * rather than per request.
+ * <p>
+ * The mapper is built here, not by Boot, so {@code spring.jackson.*} properties and Jackson builder customizers do not
+ * reach it. It only registers the modules on the classpath and ignores unknown properties, as Boot's JSON mapper does
+ * by default; a setting added to the JSON mapper has to be repeated here. The user service has the same class.
+ */
+@Configuration
+public class CodecConfig implements WebMvcConfigurer {
+
+    @Bean
+    public CBORMapper cborMapper() {
+        return CBORMapper.builder()
+                .findAndAddModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper()));
+    }
+}
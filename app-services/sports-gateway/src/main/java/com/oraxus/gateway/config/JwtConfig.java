@@ -0,0 +1,139 @@
+package com.oraxus.gateway.config;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.oraxus.gateway.config.properties.CognitoProperties;
+import com.oraxus.gateway.config.properties.JwtProperties;
+import com.oraxus.gateway.exception.ErrorResponses;
+import com.oraxus.gateway.security.CognitoTokenValidator;
+import com.oraxus.gateway.security.CognitoTokenValidator.TrustedPool;
+import com.oraxus.gateway.security.JwtAuthenticationFilter;
+import com.oraxus.gateway.tenant.Tenant;
+import com.oraxus.gateway.tenant.TenantRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Configuration
+@ConditionalOnProperty(prefix = "cognito.jwt", name = "enabled", havingValue = "true")
+public class JwtConfig {
+
+    private final CognitoProperties cognitoProperties;
+    private final JwtProperties jwtProperties;
+
+    public JwtConfig(CognitoProperties cognitoProperties, JwtProperties jwtProperties) {
+        this.cognitoProperties = cognitoProperties;
+        this.jwtProperties = jwtProperties;
+    }
+
+    /**
+     * The default pool's JWKS. Remote keys are cached for jwksCacheTtl and refreshed in the background before they
+     * expire. A token signed with an unknown kid forces a refetch, rate limited so forged kids cannot be used to
+     * hammer Cognito.
+     */
+    @Bean
+    public JWKSource<SecurityContext> cognitoJwkSource() throws IOException, ParseException {
+        if (jwtProperties.getJwksFile() != null && !jwtProperties.getJwksFile().isEmpty()) {
+            return new ImmutableJWKSet<>(JWKSet.load(new File(jwtProperties.getJwksFile())));
+        }
+
+        String jwksUri = jwtProperties.getJwksUri();
+        if (jwksUri == null || jwksUri.isEmpty()) {
+            jwksUri = issuer() + "/.well-known/jwks.json";
+        }
+        return remoteJwkSource(jwksUri);
+    }
+
+    /**
+     * Trusts the pool of every tenant, each with its own JWKS, and follows the tenants file as it is reloaded.
+     * A tenant keeps its JWKS source (and so its cached keys) across reloads as long as its definition is unchanged.
+     */
+    @Bean
+    public CognitoTokenValidator cognitoTokenValidator(JWKSource<SecurityContext> cognitoJwkSource,
+                                                       TenantRegistry tenantRegistry) {
+        Map<Tenant, TrustedPool> pools = new ConcurrentHashMap<>();
+        CognitoTokenValidator validator = new CognitoTokenValidator(
+                trustedPools(tenantRegistry.tenants(), pools, cognitoJwkSource),
+                jwtProperties.getVerifiedTokenCacheSize());
+        tenantRegistry.onReload(tenants -> {
+            List<TrustedPool> removed = pools.entrySet().stream()
+                    .filter(entry -> !tenants.contains(entry.getKey()))
+                    .map(Map.Entry::getValue)
+                    .toList();
+            pools.keySet().retainAll(tenants);
+            validator.setPools(trustedPools(tenants, pools, cognitoJwkSource));
+            removed.forEach(JwtConfig::close);
+        });
+        return validator;
+    }
+
+    @Bean
+    public JwtAuthenticationFilter jwtAuthenticationFilter(CognitoTokenValidator cognitoTokenValidator,
+                                                           ErrorResponses errorResponses) {
+        return new JwtAuthenticationFilter(cognitoTokenValidator, jwtProperties.getProtectedPaths(),
+                jwtProperties.getOptionalPaths(), errorResponses);
+    }
+
+    private List<TrustedPool> trustedPools(Collection<Tenant> tenants, Map<Tenant, TrustedPool> pools,
+                                           JWKSource<SecurityContext> defaultJwkSource) {
+        return tenants.stream()
+                .map(tenant -> pools.computeIfAbsent(tenant, t -> t.isDefault()
+                        ? new TrustedPool(t.id(), issuer(), defaultJwkSource, t.appClients().clientIds())
+                        : trustedPool(t)))
+                .toList();
+    }
+
+    private TrustedPool trustedPool(Tenant tenant) {
+        String issuer = issuer(tenant.region(), tenant.userPoolId());
+        try {
+            return new TrustedPool(tenant.id(), issuer, remoteJwkSource(issuer + "/.well-known/jwks.json"),
+                    tenant.appClients().clientIds());
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid JWKS URL for tenant " + tenant.id(), e);
+        }
+    }
+
+    private JWKSource<SecurityContext> remoteJwkSource(String jwksUri) throws MalformedURLException {
+        return JWKSourceBuilder.<SecurityContext>create(URI.create(jwksUri).toURL())
+                .cache(jwtProperties.getJwksCacheTtl().toMillis(), jwtProperties.getJwksRefreshTimeout().toMillis())
+                .refreshAheadCache(jwtProperties.getJwksRefreshAhead().toMillis(), true)
+                .rateLimited(jwtProperties.getJwksMinRefreshInterval().toMillis())
+                .build();
+    }
+
+    // Stops the background refresh of a dropped tenant's keys
+    private static void close(TrustedPool pool) {
+        if (pool.keySource() instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    private String issuer() {
+        if (jwtProperties.getIssuer() != null && !jwtProperties.getIssuer().isEmpty()) {
+            return jwtProperties.getIssuer();
+        }
+        return issuer(cognitoProperties.getRegion(), cognitoProperties.getUserPoolId());
+    }
+
+    private static String issuer(String region, String userPoolId) {
+        return "https://cognito-idp." + region + ".amazonaws.com/" + userPoolId;
+    }
+}
@@ -0,0 +1,49 @@
+package com.oraxus.gateway.config;
+
+import com.oraxus.gateway.config.properties.ResilienceProperties;
+import com.oraxus.gateway.resilience.DependencyGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+
+@Configuration
+public class ResilienceConfig {
+
+    /**
+     * Guards Cognito in the default tenant's region; {@code CognitoOperations} adds one per other region.
+     */
+    @Bean
+    public DependencyGuard cognitoGuard(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        return new DependencyGuard("cognito", properties.getCognito(), ResilienceConfig::isCognitoFailure,
+                meterRegistry);
+    }
+
+    /**
+     * Cognito calls count against the circuit when they fail on the network, time out, are throttled or return
+     * a 5xx. Ordinary 4xx answers (wrong password, expired code) mean Cognito is healthy.
+     */
+    public static boolean isCognitoFailure(Throwable t) {
+        if (t instanceof AwsServiceException e) {
+            return e.statusCode() >= 500 || e.isThrottlingException();
+        }
+        return true;
+    }
+
+    @Bean
+    public DependencyGuard userServiceGuard(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        return new DependencyGuard("user-service", properties.getUserService(),
+                t -> !(t instanceof WebClientResponseException e) || e.getStatusCode().is5xxServerError(),
+                meterRegistry);
+    }
+
+    /**
+     * Proxied GraphQL requests. Upstream statuses are passed through to the client rather than raised, so every
+     * error that reaches the guard is a network failure or timeout.
+     */
+    @Bean
+    public DependencyGuard userServiceGraphqlGuard(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        return new DependencyGuard("user-service-graphql", properties.getUserServiceGraphql(), t -> true, meterRegistry);
+    }
+}
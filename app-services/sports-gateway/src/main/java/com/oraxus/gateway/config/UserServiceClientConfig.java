@@ -0,0 +1,46 @@
+package com.oraxus.gateway.config;
+
+import com.oraxus.gateway.config.properties.UserServiceProperties;
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class UserServiceClientConfig {
+
+    private final UserServiceProperties userServiceProperties;
+
+    public UserServiceClientConfig(UserServiceProperties userServiceProperties) {
+        this.userServiceProperties = userServiceProperties;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider userServiceConnectionProvider() {
+        return ConnectionProvider.builder("user-service")
+                .maxConnections(userServiceProperties.getMaxConnections())
+                .pendingAcquireMaxCount(userServiceProperties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(userServiceProperties.getPendingAcquireTimeout())
+                .maxIdleTime(userServiceProperties.getMaxIdleTime())
+                .maxLifeTime(userServiceProperties.getMaxLifeTime())
+                .evictInBackground(userServiceProperties.getMaxIdleTime())
+                .build();
+    }
+
+    @Bean
+    public WebClient userServiceWebClient(ConnectionProvider userServiceConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(userServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) userServiceProperties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(userServiceProperties.getReadTimeout())
+                .keepAlive(true);
+
+        return WebClient.builder()
+                .baseUrl(userServiceProperties.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
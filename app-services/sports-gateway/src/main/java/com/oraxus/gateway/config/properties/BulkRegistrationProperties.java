@@ -0,0 +1,78 @@
+package com.oraxus.gateway.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "bulk-register")
+public class BulkRegistrationProperties {
+    private boolean enabled = false;
+    // Cognito group a caller's verified token must carry; the endpoint is also expected under cognito.jwt.protectedPaths
+    private String requiredGroup = "admin";
+    private int maxUsers = 50_000;
+    // Users being created at once; the upload is not read further while all slots are busy
+    private int maxConcurrency = 8;
+    // Registrations started per second, shared by all uploads. Each one is two Cognito calls
+    // (AdminCreateUser and AdminSetUserPassword), which fall under separate Cognito quota categories.
+    private int usersPerSecond = 20;
+    private int maxRetries = 3;
+    private Duration retryBackoff = Duration.ofMillis(500);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getRequiredGroup() {
+        return requiredGroup;
+    }
+
+    public void setRequiredGroup(String requiredGroup) {
+        this.requiredGroup = requiredGroup;
+    }
+
+    public int getMaxUsers() {
+        return maxUsers;
+    }
+
+    public void setMaxUsers(int maxUsers) {
+        this.maxUsers = maxUsers;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getUsersPerSecond() {
+        return usersPerSecond;
+    }
+
+    public void setUsersPerSecond(int usersPerSecond) {
+        this.usersPerSecond = usersPerSecond;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+}
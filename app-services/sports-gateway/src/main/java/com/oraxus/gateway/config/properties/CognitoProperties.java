@@ -3,16 +3,22 @@ package com.oraxus.gateway.config.properties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @ConfigurationProperties(prefix = "cognito")
 public class CognitoProperties {
     private String region;
+    // Overrides the regional Cognito endpoint, e.g. a local stand-in for load tests
+    private String endpoint;
     private String userPoolId;
     private String clientId;
     private String clientIdWeb;
     private String clientIdMobile;
     private String clientSecretWeb;
     private String clientSecretMobile;
+    private Sync sync = new Sync();
+    private Async async = new Async();
 
     public String getRegion() {
         return region;
@@ -22,6 +28,14 @@ public class CognitoProperties {
         this.region = region;
     }
 
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
     public String getUserPoolId() {
         return userPoolId;
     }
@@ -69,4 +83,114 @@ public class CognitoProperties {
     public void setClientSecretMobile(String clientSecretMobile) {
         this.clientSecretMobile = clientSecretMobile;
     }
+
+    public Sync getSync() {
+        return sync;
+    }
+
+    public void setSync(Sync sync) {
+        this.sync = sync;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public void setAsync(Async async) {
+        this.async = async;
+    }
+
+    /**
+     * Connection pool of the blocking Cognito client. Every concurrent auth request holds one connection for the
+     * whole Cognito round trip, so with virtual threads this, not the Tomcat pool, bounds concurrency.
+     */
+    public static class Sync {
+        private int maxConnections = 200;
+        private Duration connectionAcquisitionTimeout = Duration.ofSeconds(2);
+        private Duration connectionTimeToLive = Duration.ofMinutes(1);
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Duration getConnectionAcquisitionTimeout() {
+            return connectionAcquisitionTimeout;
+        }
+
+        public void setConnectionAcquisitionTimeout(Duration connectionAcquisitionTimeout) {
+            this.connectionAcquisitionTimeout = connectionAcquisitionTimeout;
+        }
+
+        public Duration getConnectionTimeToLive() {
+            return connectionTimeToLive;
+        }
+
+        public void setConnectionTimeToLive(Duration connectionTimeToLive) {
+            this.connectionTimeToLive = connectionTimeToLive;
+        }
+    }
+
+    /**
+     * Non-blocking Cognito client (Netty NIO). When enabled, auth endpoints complete without holding a servlet thread.
+     */
+    public static class Async {
+        private boolean enabled = false;
+        private int maxConcurrency = 200;
+        private int maxPendingConnectionAcquires = 10_000;
+        private Duration connectionAcquisitionTimeout = Duration.ofSeconds(2);
+        private Duration connectionTimeToLive = Duration.ofMinutes(1);
+        private Duration connectionMaxIdleTime = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public int getMaxPendingConnectionAcquires() {
+            return maxPendingConnectionAcquires;
+        }
+
+        public void setMaxPendingConnectionAcquires(int maxPendingConnectionAcquires) {
+            this.maxPendingConnectionAcquires = maxPendingConnectionAcquires;
+        }
+
+        public Duration getConnectionAcquisitionTimeout() {
+            return connectionAcquisitionTimeout;
+        }
+
+        public void setConnectionAcquisitionTimeout(Duration connectionAcquisitionTimeout) {
+            this.connectionAcquisitionTimeout = connectionAcquisitionTimeout;
+        }
+
+        public Duration getConnectionTimeToLive() {
+            return connectionTimeToLive;
+        }
+
+        public void setConnectionTimeToLive(Duration connectionTimeToLive) {
+            this.connectionTimeToLive = connectionTimeToLive;
+        }
+
+        public Duration getConnectionMaxIdleTime() {
+            return connectionMaxIdleTime;
+        }
+
+        public void setConnectionMaxIdleTime(Duration connectionMaxIdleTime) {
+            this.connectionMaxIdleTime = connectionMaxIdleTime;
+        }
+    }
 }
@@ -0,0 +1,88 @@
+package com.oraxus.gateway.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "graphql-cache")
+public class GraphQlCacheProperties {
+    private boolean enabled = true;
+    private int maxEntries = 10_000;
+    // Responses larger than this are passed through but not kept
+    private int maxBodyBytes = 256 * 1024;
+    private Duration ttl = Duration.ofSeconds(30);
+    // After ttl, the old response is still served for this long while one request refreshes it
+    private Duration staleWhileRevalidate = Duration.ofSeconds(60);
+    // Documents remembered for hash-only persisted query requests
+    private int maxPersistedDocuments = 1000;
+    // Cognito group a caller's verified token must carry to send mutations; blank accepts any verified token
+    private String mutationGroup = "admin";
+    // Shared secret the invalidation endpoint requires in X-Invalidation-Token; unset disables the endpoint
+    private String invalidationToken;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    public int getMaxPersistedDocuments() {
+        return maxPersistedDocuments;
+    }
+
+    public void setMaxPersistedDocuments(int maxPersistedDocuments) {
+        this.maxPersistedDocuments = maxPersistedDocuments;
+    }
+
+    public String getMutationGroup() {
+        return mutationGroup;
+    }
+
+    public void setMutationGroup(String mutationGroup) {
+        this.mutationGroup = mutationGroup;
+    }
+
+    public String getInvalidationToken() {
+        return invalidationToken;
+    }
+
+    public void setInvalidationToken(String invalidationToken) {
+        this.invalidationToken = invalidationToken;
+    }
+}
@@ -0,0 +1,118 @@
+package com.oraxus.gateway.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "cognito.jwt")
+public class JwtProperties {
+    private boolean enabled = false;
+    // Defaults to the user pool's well-known JWKS URL
+    private String jwksUri;
+    // Local JWKS file (e.g. for tests); takes precedence over jwksUri
+    private String jwksFile;
+    // Defaults to https://cognito-idp.<region>.amazonaws.com/<userPoolId>
+    private String issuer;
+    private Duration jwksCacheTtl = Duration.ofHours(1);
+    private Duration jwksRefreshAhead = Duration.ofMinutes(5);
+    private Duration jwksRefreshTimeout = Duration.ofSeconds(5);
+    // Minimum gap between JWKS fetches triggered by an unknown kid
+    private Duration jwksMinRefreshInterval = Duration.ofSeconds(30);
+    private int verifiedTokenCacheSize = 10_000;
+    // Ant-style patterns of routes that require a valid bearer token
+    private List<String> protectedPaths = new ArrayList<>();
+    // Routes where a bearer token is verified if sent but not required, e.g. /graphql where only mutations need one
+    private List<String> optionalPaths = new ArrayList<>(List.of("/graphql"));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getJwksUri() {
+        return jwksUri;
+    }
+
+    public void setJwksUri(String jwksUri) {
+        this.jwksUri = jwksUri;
+    }
+
+    public String getJwksFile() {
+        return jwksFile;
+    }
+
+    public void setJwksFile(String jwksFile) {
+        this.jwksFile = jwksFile;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public void setIssuer(String issuer) {
+        this.issuer = issuer;
+    }
+
+    public Duration getJwksCacheTtl() {
+        return jwksCacheTtl;
+    }
+
+    public void setJwksCacheTtl(Duration jwksCacheTtl) {
+        this.jwksCacheTtl = jwksCacheTtl;
+    }
+
+    public Duration getJwksRefreshAhead() {
+        return jwksRefreshAhead;
+    }
+
+    public void setJwksRefreshAhead(Duration jwksRefreshAhead) {
+        this.jwksRefreshAhead = jwksRefreshAhead;
+    }
+
+    public Duration getJwksRefreshTimeout() {
+        return jwksRefreshTimeout;
+    }
+
+    public void setJwksRefreshTimeout(Duration jwksRefreshTimeout) {
+        this.jwksRefreshTimeout = jwksRefreshTimeout;
+    }
+
+    public Duration getJwksMinRefreshInterval() {
+        return jwksMinRefreshInterval;
+    }
+
+    public void setJwksMinRefreshInterval(Duration jwksMinRefreshInterval) {
+        this.jwksMinRefreshInterval = jwksMinRefreshInterval;
+    }
+
+    public int getVerifiedTokenCacheSize() {
+        return verifiedTokenCacheSize;
+    }
+
+    public void setVerifiedTokenCacheSize(int verifiedTokenCacheSize) {
+        this.verifiedTokenCacheSize = verifiedTokenCacheSize;
+    }
+
+    public List<String> getProtectedPaths() {
+        return protectedPaths;
+    }
+
+    public void setProtectedPaths(List<String> protectedPaths) {
+        this.protectedPaths = protectedPaths;
+    }
+
+    public List<String> getOptionalPaths() {
+        return optionalPaths;
+    }
+
+    public void setOptionalPaths(List<String> optionalPaths) {
+        this.optionalPaths = optionalPaths;
+    }
+}
@@ -0,0 +1,132 @@
+package com.oraxus.gateway.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    // Upper bound on buckets held by the in-process backend
+    private int maxKeys = 100_000;
+    // Requests a single username may have in flight at once across all auth endpoints
+    private int maxConcurrentPerUser = 2;
+    // Endpoints not counted against maxConcurrentPerUser. Concurrent refreshes of one token share one Cognito call,
+    // so several tabs or app instances refreshing at once cost nothing extra and must not be turned away.
+    private Set<String> uncappedEndpoints = new HashSet<>(Set.of("refresh"));
+    // Take the client IP from X-Forwarded-For; only safe behind a proxy that sets it
+    private boolean trustForwardedFor = false;
+    // Keyed by endpoint name: start, verify, login, register, refresh
+    private Map<String, EndpointLimits> endpoints = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public int getMaxConcurrentPerUser() {
+        return maxConcurrentPerUser;
+    }
+
+    public void setMaxConcurrentPerUser(int maxConcurrentPerUser) {
+        this.maxConcurrentPerUser = maxConcurrentPerUser;
+    }
+
+    public Set<String> getUncappedEndpoints() {
+        return uncappedEndpoints;
+    }
+
+    public void setUncappedEndpoints(Set<String> uncappedEndpoints) {
+        this.uncappedEndpoints = uncappedEndpoints;
+    }
+
+    public boolean isTrustForwardedFor() {
+        return trustForwardedFor;
+    }
+
+    public void setTrustForwardedFor(boolean trustForwardedFor) {
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    public Map<String, EndpointLimits> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, EndpointLimits> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * Buckets applied to one endpoint. A dimension left unset is not limited.
+     */
+    public static class EndpointLimits {
+        private Limit username;
+        private Limit ip;
+        private Limit platform;
+
+        public Limit getUsername() {
+            return username;
+        }
+
+        public void setUsername(Limit username) {
+            this.username = username;
+        }
+
+        public Limit getIp() {
+            return ip;
+        }
+
+        public void setIp(Limit ip) {
+            this.ip = ip;
+        }
+
+        public Limit getPlatform() {
+            return platform;
+        }
+
+        public void setPlatform(Limit platform) {
+            this.platform = platform;
+        }
+    }
+
+    /**
+     * {@code capacity} requests in a burst, refilled evenly over {@code period}.
+     */
+    public static class Limit {
+        private int capacity;
+        private Duration period = Duration.ofMinutes(1);
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+    }
+}
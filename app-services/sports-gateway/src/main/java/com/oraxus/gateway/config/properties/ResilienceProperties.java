@@ -0,0 +1,138 @@
+package com.oraxus.gateway.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "resilience")
+public class ResilienceProperties {
+    private Guard cognito = new Guard();
+    private Guard userService = new Guard();
+    // GraphQL reads proxied to the user service, kept apart from the ensure batches
+    private Guard userServiceGraphql = new Guard();
+
+    public Guard getCognito() {
+        return cognito;
+    }
+
+    public void setCognito(Guard cognito) {
+        this.cognito = cognito;
+    }
+
+    public Guard getUserService() {
+        return userService;
+    }
+
+    public void setUserService(Guard userService) {
+        this.userService = userService;
+    }
+
+    public Guard getUserServiceGraphql() {
+        return userServiceGraphql;
+    }
+
+    public void setUserServiceGraphql(Guard userServiceGraphql) {
+        this.userServiceGraphql = userServiceGraphql;
+    }
+
+    /**
+     * Bulkhead, circuit breaker and timeout settings for one downstream dependency.
+     */
+    public static class Guard {
+        private boolean enabled = true;
+        // Bulkhead: calls allowed in flight at once; further calls are rejected immediately
+        private int maxConcurrentCalls = 100;
+        // Circuit breaker: failure rate over the last slidingWindowSize calls that opens the circuit
+        private int slidingWindowSize = 50;
+        private int minimumCalls = 20;
+        private int failureRateThreshold = 50; // percent
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int halfOpenCalls = 5;
+        // Adaptive timeout: smoothed latency + 4 x its deviation, kept within [minTimeout, maxTimeout]
+        private Duration initialTimeout = Duration.ofSeconds(2);
+        private Duration minTimeout = Duration.ofMillis(500);
+        private Duration maxTimeout = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        public Duration getInitialTimeout() {
+            return initialTimeout;
+        }
+
+        public void setInitialTimeout(Duration initialTimeout) {
+            this.initialTimeout = initialTimeout;
+        }
+
+        public Duration getMinTimeout() {
+            return minTimeout;
+        }
+
+        public void setMinTimeout(Duration minTimeout) {
+            this.minTimeout = minTimeout;
+        }
+
+        public Duration getMaxTimeout() {
+            return maxTimeout;
+        }
+
+        public void setMaxTimeout(Duration maxTimeout) {
+            this.maxTimeout = maxTimeout;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.oraxus.gateway.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "tenants")
+public class TenantProperties {
+    // JSON array of tenant definitions (see TenantDefinition); unset: only the default tenant from cognito.*
+    private String file;
+    // How often the file is checked for changes; zero disables reloading
+    private Duration reloadInterval = Duration.ofSeconds(30);
+    // Request header naming the tenant; takes precedence over the host
+    private String header = "X-Tenant-Id";
+    // Also select tenants by the request's host name (their "hosts" list)
+    private boolean hostRouting = true;
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public Duration getReloadInterval() {
+        return reloadInterval;
+    }
+
+    public void setReloadInterval(Duration reloadInterval) {
+        this.reloadInterval = reloadInterval;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public void setHeader(String header) {
+        this.header = header;
+    }
+
+    public boolean isHostRouting() {
+        return hostRouting;
+    }
+
+    public void setHostRouting(boolean hostRouting) {
+        this.hostRouting = hostRouting;
+    }
+}
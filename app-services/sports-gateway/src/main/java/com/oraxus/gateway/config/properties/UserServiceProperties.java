@@ -0,0 +1,185 @@
+package com.oraxus.gateway.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "user-service")
+public class UserServiceProperties {
+    private String url;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(3);
+    // Reactor Netty keeps one pool per remote host, so this is the per-host connection limit
+    private int maxConnections = 50;
+    private int pendingAcquireMaxCount = 500;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    // Sent as X-Roster-Token with the GraphQL mutations the gateway forwards; must match roster.writes.token
+    private String rosterToken;
+    private Ensure ensure = new Ensure();
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getPendingAcquireMaxCount() {
+        return pendingAcquireMaxCount;
+    }
+
+    public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+    }
+
+    public Duration getPendingAcquireTimeout() {
+        return pendingAcquireTimeout;
+    }
+
+    public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+    }
+
+    public Duration getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(Duration maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public Duration getMaxLifeTime() {
+        return maxLifeTime;
+    }
+
+    public void setMaxLifeTime(Duration maxLifeTime) {
+        this.maxLifeTime = maxLifeTime;
+    }
+
+    public String getRosterToken() {
+        return rosterToken;
+    }
+
+    public void setRosterToken(String rosterToken) {
+        this.rosterToken = rosterToken;
+    }
+
+    public Ensure getEnsure() {
+        return ensure;
+    }
+
+    public void setEnsure(Ensure ensure) {
+        this.ensure = ensure;
+    }
+
+    /**
+     * Batching of ensure-user calls made on behalf of logins and registrations.
+     */
+    public static class Ensure {
+        // How long usernames are coalesced before a batch is sent
+        private Duration window = Duration.ofMillis(200);
+        private int batchSize = 100;
+        private int maxConcurrentBatches = 4;
+        private int maxRetries = 3;
+        private Duration retryBackoff = Duration.ofMillis(200);
+        // Usernames waiting to be sent; further usernames are dropped and retried on their next login
+        private int maxPending = 100_000;
+        // Usernames known to exist in the user service; these never generate a call
+        private int ensuredCacheSize = 100_000;
+        // How long a username is trusted to exist before a login ensures it again (e.g. after user-service data loss)
+        private Duration ensuredTtl = Duration.ofHours(1);
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxConcurrentBatches() {
+            return maxConcurrentBatches;
+        }
+
+        public void setMaxConcurrentBatches(int maxConcurrentBatches) {
+            this.maxConcurrentBatches = maxConcurrentBatches;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        public Duration getRetryBackoff() {
+            return retryBackoff;
+        }
+
+        public void setRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+
+        public int getMaxPending() {
+            return maxPending;
+        }
+
+        public void setMaxPending(int maxPending) {
+            this.maxPending = maxPending;
+        }
+
+        public int getEnsuredCacheSize() {
+            return ensuredCacheSize;
+        }
+
+        public void setEnsuredCacheSize(int ensuredCacheSize) {
+            this.ensuredCacheSize = ensuredCacheSize;
+        }
+
+        public Duration getEnsuredTtl() {
+            return ensuredTtl;
+        }
+
+        public void setEnsuredTtl(Duration ensuredTtl) {
+            this.ensuredTtl = ensuredTtl;
+        }
+    }
+}
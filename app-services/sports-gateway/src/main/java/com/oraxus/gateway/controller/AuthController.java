@@ -1,6 +1,11 @@
 package com.oraxus.gateway.controller;
 
+import com.oraxus.gateway.metrics.AuthMetrics;
+import com.oraxus.gateway.ratelimit.AuthRateLimiter;
 import com.oraxus.gateway.service.CognitoService;
+import com.oraxus.gateway.tenant.Tenant;
+import com.oraxus.gateway.tenant.TenantResolver;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,39 +16,81 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
     private final CognitoService cognitoService;
+    private final AuthRateLimiter rateLimiter;
+    private final AuthMetrics metrics;
+    private final TenantResolver tenantResolver;
 
-    public AuthController(CognitoService cognitoService) {
+    public AuthController(CognitoService cognitoService, AuthRateLimiter rateLimiter, AuthMetrics metrics,
+                          TenantResolver tenantResolver) {
         this.cognitoService = cognitoService;
+        this.rateLimiter = rateLimiter;
+        this.metrics = metrics;
+        this.tenantResolver = tenantResolver;
     }
 
     @PostMapping("/start")
-    public ResponseEntity<StartResponse> start(@Valid @RequestBody StartRequest req) {
-        StartResponse resp = cognitoService.startAuth(req.getUsername(), req.getPlatform());
-        return ResponseEntity.ok(resp);
+    public CompletableFuture<ResponseEntity<StartResponse>> start(@Valid @RequestBody StartRequest req, HttpServletRequest http) {
+        return limited("start", req.getUsername(), req.getPlatform(), http,
+                tenant -> cognitoService.startAuth(tenant, req.getUsername(), req.getPlatform()));
     }
 
     @PostMapping("/register")
-    public ResponseEntity<RegisterResponse> register(@Valid @RequestBody RegisterRequest req) {
-        RegisterResponse resp = cognitoService.registerUser(req.getUsername(), req.getPassword(), req.getEmail(), req.getPhoneNumber());
-        return ResponseEntity.ok(resp);
+    public CompletableFuture<ResponseEntity<RegisterResponse>> register(@Valid @RequestBody RegisterRequest req, HttpServletRequest http) {
+        return limited("register", req.getUsername(), null, http,
+                tenant -> cognitoService.registerUser(tenant, req.getUsername(), req.getPassword(), req.getEmail(), req.getPhoneNumber()));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest req) {
-        LoginResponse resp = cognitoService.loginUser(req.getUsername(), req.getPassword(), req.getPlatform());
-        return ResponseEntity.ok(resp);
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest req, HttpServletRequest http) {
+        return limited("login", req.getUsername(), req.getPlatform(), http,
+                tenant -> cognitoService.loginUser(tenant, req.getUsername(), req.getPassword(), req.getPlatform()));
     }
 
     @PostMapping("/verify")
-    public ResponseEntity<VerifyResponse> verify(@Valid @RequestBody VerifyRequest req) {
-        VerifyResponse resp = cognitoService.verifyChallenge(req.getUsername(), req.getSession(), req.getCode(), req.getPlatform());
-        return ResponseEntity.ok(resp);
+    public CompletableFuture<ResponseEntity<VerifyResponse>> verify(@Valid @RequestBody VerifyRequest req, HttpServletRequest http) {
+        return limited("verify", req.getUsername(), req.getPlatform(), http,
+                tenant -> cognitoService.verifyChallenge(tenant, req.getUsername(), req.getSession(), req.getCode(), req.getPlatform()));
+    }
+
+    @PostMapping("/refresh")
+    public CompletableFuture<ResponseEntity<RefreshResponse>> refresh(@Valid @RequestBody RefreshRequest req, HttpServletRequest http) {
+        return limited("refresh", req.getUsername(), req.getPlatform(), http,
+                tenant -> cognitoService.refreshTokens(tenant, req.getUsername(), req.getRefreshToken(), req.getPlatform()));
+    }
+
+    /**
+     * Run {@code call} for the request's tenant under the rate limits for {@code endpoint}, holding the user's
+     * concurrency slot until the returned future completes, and time it including any rejection.
+     */
+    private <T> CompletableFuture<ResponseEntity<T>> limited(String endpoint, String username, String platform,
+                                                            HttpServletRequest http, Function<Tenant, CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        AuthRateLimiter.Permit permit = null;
+        CompletableFuture<T> result;
+        try {
+            Tenant tenant = tenantResolver.resolve(http);
+            permit = rateLimiter.acquire(endpoint, tenant.qualify(username), platform, http);
+            result = call.apply(tenant);
+        } catch (RuntimeException e) {
+            if (permit != null) {
+                permit.release();
+            }
+            metrics.recordEndpoint(endpoint, platform, null, e, System.nanoTime() - start);
+            throw e;
+        }
+        AuthRateLimiter.Permit acquired = permit;
+        return result.whenComplete((r, t) -> {
+            acquired.release();
+            metrics.recordEndpoint(endpoint, platform, r, t, System.nanoTime() - start);
+        }).thenApply(ResponseEntity::ok);
     }
 
     @Data
@@ -121,4 +168,23 @@ public class AuthController {
         private String idToken;
         private String refreshToken;
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RefreshRequest {
+        private String refreshToken;
+        private String username; // required when the app client has a secret
+        private String platform; // optional: "web" or "mobile"
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RefreshResponse {
+        private boolean success;
+        private String accessToken;
+        private String idToken;
+        private String refreshToken; // only present when Cognito rotates refresh tokens
+    }
 }
@@ -0,0 +1,99 @@
+package com.oraxus.gateway.controller;
+
+import com.oraxus.gateway.config.properties.BulkRegistrationProperties;
+import com.oraxus.gateway.exception.AuthException;
+import com.oraxus.gateway.security.VerifiedToken;
+import com.oraxus.gateway.service.BulkRegistrationService;
+import com.oraxus.gateway.tenant.Tenant;
+import com.oraxus.gateway.tenant.TenantResolver;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/admin/users")
+public class BulkRegistrationController {
+
+    private final BulkRegistrationService bulkRegistrationService;
+    private final BulkRegistrationProperties properties;
+    private final TenantResolver tenantResolver;
+
+    public BulkRegistrationController(BulkRegistrationService bulkRegistrationService,
+                                      BulkRegistrationProperties properties, TenantResolver tenantResolver) {
+        this.bulkRegistrationService = bulkRegistrationService;
+        this.properties = properties;
+        this.tenantResolver = tenantResolver;
+    }
+
+    /**
+     * Register the users in an NDJSON upload (one {@link AuthController.RegisterRequest} per line). The response is
+     * NDJSON too: a {@link BulkRegisterResult} per user in completion order, then a {@link BulkRegisterSummary}.
+     * Runs on the request thread for as long as the upload takes, so there is no async timeout to outlast.
+     * Users are created in the caller's own tenant: the target tenant must be the one whose pool issued the caller's
+     * token, so an admin of one club cannot create users in another club's pool. Without a required group there is
+     * no caller to match, and only the default tenant is accepted.
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void register(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!properties.isEnabled()) {
+            throw new AuthException(HttpStatus.NOT_FOUND, "bulk.disabled", "Bulk registration is disabled");
+        }
+        VerifiedToken caller = authorize(request);
+        Tenant tenant = tenantResolver.resolve(request);
+        if (caller != null ? !tenant.id().equals(caller.tenant()) : !tenant.isDefault()) {
+            throw new AuthException(HttpStatus.FORBIDDEN, "tenant.mismatch",
+                    "Bulk registration is only available for the caller's own tenant");
+        }
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        bulkRegistrationService.register(tenant, request.getInputStream(), response.getOutputStream());
+    }
+
+    /**
+     * The verified caller, or null when no group is required.
+     */
+    private VerifiedToken authorize(HttpServletRequest request) {
+        String group = properties.getRequiredGroup();
+        if (!StringUtils.hasText(group)) {
+            return null;
+        }
+        if (!(request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE) instanceof VerifiedToken token)) {
+            throw new AuthException(HttpStatus.FORBIDDEN, "forbidden", "A verified token is required");
+        }
+        if (!token.hasGroup(group)) {
+            throw new AuthException(HttpStatus.FORBIDDEN, "forbidden", "Caller is not in group " + group);
+        }
+        return token;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkRegisterResult {
+        private int line; // line number in the upload
+        private String username;
+        private boolean success;
+        private String error; // gateway or Cognito error code
+        private String message;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkRegisterSummary {
+        private int total;
+        private int succeeded;
+        private int failed;
+        private boolean truncated; // the upload had more than bulk-register.maxUsers users
+    }
+}
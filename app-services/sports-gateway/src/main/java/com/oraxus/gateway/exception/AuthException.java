@@ -1,13 +1,34 @@
 package com.oraxus.gateway.exception;
 
+import org.springframework.http.HttpStatus;
+
+/**
+ * An expected failure, answered with {@code {"error": code, "message": message}} and {@link #getStatus()}.
+ * These are outcomes (bad input, a wrong code, throttling), not bugs, so no stack trace is captured, and the
+ * frequent ones are thrown as shared constants.
+ */
 public class AuthException extends RuntimeException {
+
+    public static final AuthException INTERNAL_ERROR =
+            new AuthException(HttpStatus.INTERNAL_SERVER_ERROR, "internal.error", "Internal error");
+
+    private final HttpStatus status;
     private final String code;
 
     public AuthException(String code, String message) {
-        super(message);
+        this(HttpStatus.BAD_REQUEST, code, message);
+    }
+
+    public AuthException(HttpStatus status, String code, String message) {
+        super(message, null, false, false);
+        this.status = status;
         this.code = code;
     }
 
+    public HttpStatus getStatus() {
+        return status;
+    }
+
     public String getCode() {
         return code;
     }
@@ -0,0 +1,107 @@
+package com.oraxus.gateway.exception;
+
+import com.oraxus.gateway.metrics.AuthMetrics;
+import com.oraxus.gateway.ratelimit.RateLimitedException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns an {@link AuthException} into its response: the exception's status, a {@code Retry-After} header on 429,
+ * and {@code {"error": code, "message": message}} in JSON, or CBOR if the client asks for it. Bodies are
+ * serialized once per code and message and then reused. Every response counts towards {@code auth.errors}.
+ */
+@Component
+public class ErrorResponses {
+
+    private static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+    // Messages carry configuration (a group, a dependency name), never request data; this is only a backstop
+    private static final int MAX_CACHED_BODIES = 1024;
+
+    private record Bodies(byte[] json, byte[] cbor) {
+    }
+
+    private final JsonMapper jsonMapper;
+    private final CBORMapper cborMapper;
+    private final AuthMetrics metrics;
+    // code -> message -> bodies
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Bodies>> bodies = new ConcurrentHashMap<>();
+    private final AtomicInteger cachedBodies = new AtomicInteger();
+
+    public ErrorResponses(JsonMapper jsonMapper, CBORMapper cborMapper, AuthMetrics metrics) {
+        this.jsonMapper = jsonMapper;
+        this.cborMapper = cborMapper;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param accept the request's {@code Accept} header, may be null
+     */
+    public ResponseEntity<byte[]> toResponse(AuthException e, String accept) {
+        metrics.recordError(e);
+        boolean cbor = acceptsCbor(accept);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(e.getStatus())
+                .contentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON);
+        if (e.getStatus() == HttpStatus.TOO_MANY_REQUESTS) {
+            response.header(HttpHeaders.RETRY_AFTER, retryAfter(e));
+        }
+        return response.body(body(e, cbor));
+    }
+
+    /**
+     * For filters, which run outside Spring MVC's exception handling.
+     */
+    public void write(AuthException e, String accept, HttpServletResponse response) throws IOException {
+        metrics.recordError(e);
+        boolean cbor = acceptsCbor(accept);
+        byte[] body = body(e, cbor);
+        response.setStatus(e.getStatus().value());
+        if (e.getStatus() == HttpStatus.TOO_MANY_REQUESTS) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter(e));
+        }
+        response.setContentType(cbor ? CBOR : MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private byte[] body(AuthException e, boolean cbor) {
+        String code = e.getCode();
+        String message = e.getMessage() == null ? "" : e.getMessage();
+        Map<String, Bodies> byMessage = bodies.get(code);
+        Bodies cached = byMessage != null ? byMessage.get(message) : null;
+        if (cached == null) {
+            cached = serialize(code, message);
+            if (cachedBodies.get() < MAX_CACHED_BODIES
+                    && bodies.computeIfAbsent(code, c -> new ConcurrentHashMap<>()).putIfAbsent(message, cached) == null) {
+                cachedBodies.incrementAndGet();
+            }
+        }
+        return cbor ? cached.cbor() : cached.json();
+    }
+
+    private Bodies serialize(String code, String message) {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("error", code);
+        body.put("message", message);
+        return new Bodies(jsonMapper.writeValueAsBytes(body), cborMapper.writeValueAsBytes(body));
+    }
+
+    private static String retryAfter(AuthException e) {
+        return e instanceof RateLimitedException r ? Long.toString(r.getRetryAfterSeconds()) : "1";
+    }
+
+    private static boolean acceptsCbor(String accept) {
+        return accept != null && accept.contains(CBOR);
+    }
+}
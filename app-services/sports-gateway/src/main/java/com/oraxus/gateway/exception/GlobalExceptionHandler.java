@@ -2,33 +2,37 @@ package com.oraxus.gateway.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestHeader;
 
-import java.util.HashMap;
-import java.util.Map;
-
+/**
+ * Answers {@link AuthException}s (including rate limiting and unavailable dependencies) with their own status
+ * and code, and anything else with 500 {@code internal.error}. See {@link ErrorResponses}.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final ErrorResponses errorResponses;
+
+    public GlobalExceptionHandler(ErrorResponses errorResponses) {
+        this.errorResponses = errorResponses;
+    }
+
     @ExceptionHandler(AuthException.class)
-    public ResponseEntity<Map<String, Object>> handleAuth(AuthException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("error", ex.getCode());
-        body.put("message", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    public ResponseEntity<byte[]> handleAuth(AuthException ex,
+                                             @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        return errorResponses.toResponse(ex, accept);
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleAll(Exception ex) {
+    public ResponseEntity<byte[]> handleAll(Exception ex,
+                                            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
         log.error("Unhandled exception caught by GlobalExceptionHandler", ex);
-        Map<String, Object> body = new HashMap<>();
-        body.put("error", "internal.error");
-        body.put("message", "Internal server error");
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
+        return errorResponses.toResponse(AuthException.INTERNAL_ERROR, accept);
     }
 }
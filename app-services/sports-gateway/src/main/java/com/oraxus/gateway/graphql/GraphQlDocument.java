@@ -0,0 +1,178 @@
+package com.oraxus.gateway.graphql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Just enough GraphQL lexing for the response cache, without a schema or a full parser:
+ * <ul>
+ *   <li>{@link #normalized()}: the document's tokens joined by single spaces, so queries that differ only in
+ *   whitespace, commas or comments share a cache key</li>
+ *   <li>{@link #readOnly()}: false if the document defines a mutation or subscription</li>
+ *   <li>{@link #rootFields()}: the top-level fields the operations select (by field name, not alias), or
+ *   {@link #UNKNOWN_ROOT_FIELDS} if a fragment is spread at the top level</li>
+ *   <li>{@link #stringLiterals()}: string values written inline, such as {@code teamById(id: "team1")}</li>
+ * </ul>
+ */
+final class GraphQlDocument {
+
+    static final String UNKNOWN_ROOT_FIELDS = "...";
+
+    private final String normalized;
+    private final boolean readOnly;
+    private final Set<String> rootFields;
+    private final Set<String> stringLiterals;
+
+    private GraphQlDocument(String normalized, boolean readOnly, Set<String> rootFields, Set<String> stringLiterals) {
+        this.normalized = normalized;
+        this.readOnly = readOnly;
+        this.rootFields = rootFields;
+        this.stringLiterals = stringLiterals;
+    }
+
+    String normalized() {
+        return normalized;
+    }
+
+    boolean readOnly() {
+        return readOnly;
+    }
+
+    Set<String> rootFields() {
+        return rootFields;
+    }
+
+    Set<String> stringLiterals() {
+        return stringLiterals;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the document has an unterminated string
+     */
+    static GraphQlDocument parse(String query) {
+        List<String> tokens = tokenize(query);
+
+        boolean readOnly = true;
+        Set<String> rootFields = new HashSet<>();
+        Set<String> literals = new HashSet<>();
+        int depth = 0;
+        int parens = 0;
+        boolean inFragment = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            switch (token) {
+                case "{" -> depth++;
+                case "}" -> {
+                    depth--;
+                    if (depth == 0) {
+                        inFragment = false;
+                    }
+                }
+                case "(" -> parens++;
+                case ")" -> parens--;
+                default -> {
+                    if (token.charAt(0) == '"') {
+                        literals.add(unquote(token));
+                    } else if (depth == 0 && parens == 0) {
+                        if (token.equals("mutation") || token.equals("subscription")) {
+                            readOnly = false;
+                        } else if (token.equals("fragment")) {
+                            inFragment = true;
+                        }
+                    } else if (depth == 1 && parens == 0 && !inFragment) {
+                        String previous = i > 0 ? tokens.get(i - 1) : "";
+                        String next = i + 1 < tokens.size() ? tokens.get(i + 1) : "";
+                        if (token.equals("...")) {
+                            rootFields.add(UNKNOWN_ROOT_FIELDS);
+                        } else if (isName(token) && !previous.equals("@") && !previous.equals("...")
+                                && !next.equals(":")) {
+                            rootFields.add(token);
+                        }
+                    }
+                }
+            }
+        }
+        return new GraphQlDocument(String.join(" ", tokens), readOnly,
+                Collections.unmodifiableSet(rootFields), Collections.unmodifiableSet(literals));
+    }
+
+    private static List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        int n = query.length();
+        int i = 0;
+        while (i < n) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c) || c == ',' || c == '\uFEFF') {
+                i++;
+            } else if (c == '#') {
+                while (i < n && query.charAt(i) != '\n' && query.charAt(i) != '\r') {
+                    i++;
+                }
+            } else if (c == '"') {
+                int end = query.startsWith("\"\"\"", i) ? blockStringEnd(query, i) : stringEnd(query, i);
+                tokens.add(query.substring(i, end));
+                i = end;
+            } else if (c == '.' && query.startsWith("...", i)) {
+                tokens.add("...");
+                i += 3;
+            } else if ("!$&():=@[]{}|".indexOf(c) >= 0) {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else {
+                int start = i;
+                while (i < n && isNameOrNumberChar(query.charAt(i)) && !query.startsWith("...", i)) {
+                    i++;
+                }
+                if (i == start) {
+                    // Not valid GraphQL; keep the character so the upstream reports it
+                    i++;
+                }
+                tokens.add(query.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+
+    private static int stringEnd(String query, int start) {
+        for (int i = start + 1; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i + 1;
+            } else if (c == '\n' || c == '\r') {
+                break;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string");
+    }
+
+    private static int blockStringEnd(String query, int start) {
+        for (int i = start + 3; i < query.length(); i++) {
+            if (query.startsWith("\\\"\"\"", i)) {
+                i += 3;
+            } else if (query.startsWith("\"\"\"", i)) {
+                return i + 3;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated block string");
+    }
+
+    private static String unquote(String token) {
+        return token.startsWith("\"\"\"")
+                ? token.substring(3, token.length() - 3)
+                : token.substring(1, token.length() - 1);
+    }
+
+    private static boolean isName(String token) {
+        char c = token.charAt(0);
+        return c == '_' || Character.isLetter(c);
+    }
+
+    private static boolean isNameOrNumberChar(char c) {
+        return c == '_' || c == '-' || c == '+' || c == '.' || Character.isLetterOrDigit(c);
+    }
+}
@@ -0,0 +1,300 @@
+package com.oraxus.gateway.graphql;
+
+import com.oraxus.gateway.config.properties.GraphQlCacheProperties;
+import com.oraxus.gateway.config.properties.UserServiceProperties;
+import com.oraxus.gateway.exception.AuthException;
+import com.oraxus.gateway.security.VerifiedToken;
+import com.oraxus.gateway.service.UserServiceClient;
+import com.oraxus.gateway.support.BoundedLruCache;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Proxies {@code POST /graphql} to the user service. Queries are answered from {@link GraphQlResponseCache},
+ * keyed by a hash of the normalized document, the operation name and the variables with their keys sorted;
+ * mutations, subscriptions and anything that cannot be lexed go straight through. The {@code X-Cache} response
+ * header says which path a request took.
+ *
+ * <p>Entries are tagged with every id in the response, every string in the variables or inline arguments, and the
+ * root fields selected, so {@code POST /graphql/cache/invalidate} can drop them by id (an edited team) or by root
+ * field (a new team that belongs in {@code teams} pages). The user service calls it on roster changes.
+ *
+ * <p>Responses are shared between callers: the user service does not vary its answers by caller.
+ *
+ * <p>Mutations need a verified bearer token in {@code graphql-cache.mutationGroup} (see
+ * {@code cognito.jwt.optionalPaths}) and are forwarded with {@code user-service.rosterToken}. Anything the proxy
+ * cannot read, including hash-only persisted queries it has not seen, is forwarded without that token, so the user
+ * service refuses any mutation in it. The invalidation endpoint is disabled unless
+ * {@code graphql-cache.invalidationToken} is set.
+ */
+@RestController
+public class GraphQlProxyController {
+
+    private static final String CACHE_HEADER = "X-Cache";
+    private static final String INVALIDATION_TOKEN_HEADER = "X-Invalidation-Token";
+    private static final AuthException MUTATION_TOKEN_REQUIRED =
+            new AuthException(HttpStatus.UNAUTHORIZED, "token.invalid", "Mutations require a bearer token");
+    private static final AuthException INVALIDATION_DISABLED =
+            new AuthException(HttpStatus.NOT_FOUND, "invalidation.disabled", "Cache invalidation is disabled");
+
+    private final UserServiceClient userServiceClient;
+    private final GraphQlResponseCache cache;
+    private final GraphQlCacheProperties properties;
+    private final String rosterToken;
+    private final JsonMapper jsonMapper;
+    private final ObjectReader requestReader;
+    private final ObjectWriter canonicalWriter;
+    // Documents of persisted queries seen with their text, for later hash-only requests
+    private final BoundedLruCache<String, GraphQlDocument> persistedDocuments;
+
+    public GraphQlProxyController(UserServiceClient userServiceClient, GraphQlResponseCache cache,
+                                  GraphQlCacheProperties properties, UserServiceProperties userServiceProperties,
+                                  JsonMapper jsonMapper) {
+        this.userServiceClient = userServiceClient;
+        this.cache = cache;
+        this.properties = properties;
+        this.rosterToken = StringUtils.hasText(userServiceProperties.getRosterToken())
+                ? userServiceProperties.getRosterToken()
+                : null;
+        this.jsonMapper = jsonMapper;
+        this.requestReader = jsonMapper.readerFor(GraphQlRequest.class);
+        this.canonicalWriter = jsonMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.persistedDocuments = new BoundedLruCache<>(properties.getMaxPersistedDocuments());
+    }
+
+    @PostMapping(path = "/graphql", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<byte[]>> graphql(@RequestBody byte[] body, HttpServletRequest httpRequest) {
+        GraphQlRequest request = parse(body);
+        GraphQlDocument document = request != null ? document(request) : null;
+        if (document != null && !document.readOnly()) {
+            authorizeWrite(httpRequest);
+            cache.recordBypass();
+            return forward(body, rosterToken)
+                    .thenApply(response -> toResponse(response, GraphQlResponseCache.Outcome.BYPASS));
+        }
+        if (document == null || !properties.isEnabled()) {
+            cache.recordBypass();
+            return forward(body, null).thenApply(response -> toResponse(response, GraphQlResponseCache.Outcome.BYPASS));
+        }
+        String key = key(document, request);
+        return cache.get(key, () -> forward(body, null).thenApply(response ->
+                        new GraphQlResponseCache.Loaded(response, tags(document, request, response))))
+                .thenApply(lookup -> toResponse(lookup.response(), lookup.outcome()));
+    }
+
+    /**
+     * Drop cached responses that mention any of the ids or select any of the root fields, or everything.
+     */
+    @PostMapping("/graphql/cache/invalidate")
+    public InvalidationResponse invalidate(@RequestBody InvalidationRequest req,
+                                           @RequestHeader(name = INVALIDATION_TOKEN_HEADER, required = false) String token) {
+        String expected = properties.getInvalidationToken();
+        if (!StringUtils.hasText(expected)) {
+            throw INVALIDATION_DISABLED;
+        }
+        if (token == null || !MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            throw new AuthException(HttpStatus.FORBIDDEN, "forbidden", "Invalid invalidation token");
+        }
+        if (req.isAll()) {
+            return new InvalidationResponse(cache.invalidateAll());
+        }
+        List<String> tags = new ArrayList<>();
+        if (req.getIds() != null) {
+            req.getIds().forEach(id -> tags.add(GraphQlResponseCache.idTag(id)));
+        }
+        if (req.getFields() != null && !req.getFields().isEmpty()) {
+            req.getFields().forEach(field -> tags.add(GraphQlResponseCache.fieldTag(field)));
+            // Queries whose root fields come from fragments could select any of them
+            tags.add(GraphQlResponseCache.fieldTag(GraphQlDocument.UNKNOWN_ROOT_FIELDS));
+        }
+        return new InvalidationResponse(cache.invalidate(tags));
+    }
+
+    private void authorizeWrite(HttpServletRequest request) {
+        if (!(request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE) instanceof VerifiedToken token)) {
+            throw MUTATION_TOKEN_REQUIRED;
+        }
+        String group = properties.getMutationGroup();
+        if (StringUtils.hasText(group) && !token.hasGroup(group)) {
+            throw new AuthException(HttpStatus.FORBIDDEN, "forbidden", "Caller is not in group " + group);
+        }
+    }
+
+    private CompletableFuture<GraphQlResponse> forward(byte[] body, String rosterToken) {
+        return userServiceClient.graphql(body, rosterToken).toFuture();
+    }
+
+    private GraphQlRequest parse(byte[] body) {
+        try {
+            return requestReader.readValue(body);
+        } catch (JacksonException e) {
+            // Forwarded anyway so the user service reports the error in its usual shape
+            return null;
+        }
+    }
+
+    private GraphQlDocument document(GraphQlRequest request) {
+        String hash = persistedQueryHash(request);
+        if (request.getQuery() == null) {
+            return hash != null ? persistedDocuments.get(hash) : null;
+        }
+        GraphQlDocument document;
+        try {
+            document = GraphQlDocument.parse(request.getQuery());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        // Only remember documents that really match their hash, or one client could poison another's lookups
+        if (hash != null && hash.equalsIgnoreCase(sha256(request.getQuery()))) {
+            persistedDocuments.put(hash, document);
+        }
+        return document;
+    }
+
+    private String key(GraphQlDocument document, GraphQlRequest request) {
+        String variables = request.getVariables() == null || request.getVariables().isEmpty()
+                ? ""
+                : canonicalWriter.writeValueAsString(request.getVariables());
+        String operation = request.getOperationName() == null ? "" : request.getOperationName();
+        return sha256(document.normalized() + '\n' + operation + '\n' + variables);
+    }
+
+    /**
+     * Invalidation tags for a response, or null if it must not be cached (HTTP or GraphQL errors).
+     */
+    private Set<String> tags(GraphQlDocument document, GraphQlRequest request, GraphQlResponse response) {
+        if (response.status() != 200) {
+            return null;
+        }
+        JsonNode root;
+        try {
+            root = jsonMapper.readTree(response.body());
+        } catch (JacksonException e) {
+            return null;
+        }
+        JsonNode errors = root.get("errors");
+        if (errors != null && !errors.isEmpty()) {
+            return null;
+        }
+        Set<String> tags = new HashSet<>();
+        document.rootFields().forEach(field -> tags.add(GraphQlResponseCache.fieldTag(field)));
+        document.stringLiterals().forEach(value -> tags.add(GraphQlResponseCache.idTag(value)));
+        if (request.getVariables() != null) {
+            collectStrings(request.getVariables().values(), tags);
+        }
+        collectIds(root.get("data"), tags);
+        return tags;
+    }
+
+    private static void collectStrings(Collection<?> values, Set<String> tags) {
+        for (Object value : values) {
+            switch (value) {
+                case String s -> tags.add(GraphQlResponseCache.idTag(s));
+                case Map<?, ?> map -> collectStrings(map.values(), tags);
+                case Collection<?> list -> collectStrings(list, tags);
+                case null, default -> {
+                }
+            }
+        }
+    }
+
+    private static void collectIds(JsonNode node, Set<String> tags) {
+        if (node == null) {
+            return;
+        }
+        if (node.isObject()) {
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                if (field.getKey().equals("id") && field.getValue().isString()) {
+                    tags.add(GraphQlResponseCache.idTag(field.getValue().stringValue()));
+                } else {
+                    collectIds(field.getValue(), tags);
+                }
+            }
+        } else if (node.isArray()) {
+            for (JsonNode element : node) {
+                collectIds(element, tags);
+            }
+        }
+    }
+
+    private static String persistedQueryHash(GraphQlRequest request) {
+        if (request.getExtensions() != null
+                && request.getExtensions().get("persistedQuery") instanceof Map<?, ?> persisted
+                && persisted.get("sha256Hash") instanceof String hash) {
+            return hash;
+        }
+        return null;
+    }
+
+    private static ResponseEntity<byte[]> toResponse(GraphQlResponse response, GraphQlResponseCache.Outcome outcome) {
+        return ResponseEntity.status(response.status())
+                .header(HttpHeaders.CONTENT_TYPE, response.contentType())
+                .header(CACHE_HEADER, outcome.name())
+                .body(response.body());
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GraphQlRequest {
+        private String query;
+        private String operationName;
+        private Map<String, Object> variables;
+        private Map<String, Object> extensions;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InvalidationRequest {
+        private List<String> ids;
+        private List<String> fields; // root query fields, e.g. "teams"
+        private boolean all;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InvalidationResponse {
+        private int invalidated;
+    }
+}
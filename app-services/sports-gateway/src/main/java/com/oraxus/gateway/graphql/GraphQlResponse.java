@@ -0,0 +1,7 @@
+package com.oraxus.gateway.graphql;
+
+/**
+ * A user-service GraphQL response as received, passed through to the client unchanged.
+ */
+public record GraphQlResponse(int status, String contentType, byte[] body) {
+}
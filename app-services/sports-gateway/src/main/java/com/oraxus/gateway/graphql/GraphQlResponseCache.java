@@ -0,0 +1,228 @@
+package com.oraxus.gateway.graphql;
+
+import com.oraxus.gateway.config.properties.GraphQlCacheProperties;
+import com.oraxus.gateway.support.BoundedLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Responses to GraphQL reads, keyed by the caller (see {@code GraphQlProxyController}) and tagged with the ids and
+ * root fields they depend on so that roster changes can drop exactly the affected entries.
+ * <ul>
+ *   <li>Fresh entries ({@code ttl}) are served without calling upstream.</li>
+ *   <li>Expired entries are served for another {@code staleWhileRevalidate} while a single background request
+ *   refreshes them.</li>
+ *   <li>Concurrent misses for the same key share one upstream call.</li>
+ * </ul>
+ * An invalidation that arrives while a response is being fetched keeps that response out of the cache, since it
+ * may predate the change.
+ */
+@Component
+public class GraphQlResponseCache {
+    private static final Logger log = LoggerFactory.getLogger(GraphQlResponseCache.class);
+
+    public enum Outcome {
+        HIT, STALE, MISS, COALESCED, BYPASS
+    }
+
+    /**
+     * What a loader fetched; {@code tags} is null when the response must not be cached.
+     */
+    public record Loaded(GraphQlResponse response, Set<String> tags) {
+    }
+
+    public record Lookup(GraphQlResponse response, Outcome outcome) {
+    }
+
+    private record Entry(GraphQlResponse response, Set<String> tags, long freshUntilNanos, long staleUntilNanos) {
+    }
+
+    private final GraphQlCacheProperties properties;
+    private final BoundedLruCache<String, Entry> entries;
+    private final ConcurrentHashMap<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<GraphQlResponse>> inFlight = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; a fetch that spans a bump is not stored
+    private final AtomicLong epoch = new AtomicLong();
+    private final Map<Outcome, Counter> requests = new EnumMap<>(Outcome.class);
+    private final Counter invalidations;
+
+    public GraphQlResponseCache(GraphQlCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.entries = new BoundedLruCache<>(properties.getMaxEntries(), (key, entry) -> untag(key, entry.tags()));
+        for (Outcome outcome : Outcome.values()) {
+            requests.put(outcome, Counter.builder("graphql.cache.requests")
+                    .description("Proxied GraphQL requests by cache outcome")
+                    .tag("result", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        this.invalidations = Counter.builder("graphql.cache.invalidated")
+                .description("Cached GraphQL responses dropped by invalidation")
+                .register(meterRegistry);
+        Gauge.builder("graphql.cache.size", entries, BoundedLruCache::size).register(meterRegistry);
+    }
+
+    /**
+     * The cached response for {@code key}, or the result of {@code loader} (shared with concurrent callers for the
+     * same key).
+     */
+    public CompletableFuture<Lookup> get(String key, Supplier<CompletableFuture<Loaded>> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (now - entry.freshUntilNanos() < 0) {
+                return CompletableFuture.completedFuture(lookup(entry.response(), Outcome.HIT));
+            }
+            if (now - entry.staleUntilNanos() < 0) {
+                load(key, loader).exceptionally(t -> {
+                    log.debug("Background refresh of a cached GraphQL response failed: {}", t.getMessage());
+                    return null;
+                });
+                return CompletableFuture.completedFuture(lookup(entry.response(), Outcome.STALE));
+            }
+        }
+        CompletableFuture<GraphQlResponse> existing = inFlight.get(key);
+        if (existing != null) {
+            return existing.thenApply(response -> lookup(response, Outcome.COALESCED));
+        }
+        return load(key, loader).thenApply(response -> lookup(response, Outcome.MISS));
+    }
+
+    public void recordBypass() {
+        requests.get(Outcome.BYPASS).increment();
+    }
+
+    /**
+     * Drop every entry carrying any of the tags.
+     *
+     * @return the number of entries dropped
+     */
+    public int invalidate(Collection<String> tags) {
+        epoch.incrementAndGet();
+        int removed = 0;
+        for (String tag : tags) {
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys == null) {
+                continue;
+            }
+            for (String key : keys) {
+                Entry entry = entries.remove(key);
+                if (entry != null) {
+                    untag(key, entry.tags());
+                    removed++;
+                }
+            }
+        }
+        invalidations.increment(removed);
+        return removed;
+    }
+
+    public int invalidateAll() {
+        epoch.incrementAndGet();
+        int removed = entries.size();
+        entries.clear();
+        keysByTag.clear();
+        invalidations.increment(removed);
+        return removed;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    int tagCount() {
+        return keysByTag.size();
+    }
+
+    static String idTag(String id) {
+        return "id:" + id;
+    }
+
+    static String fieldTag(String field) {
+        return "field:" + field;
+    }
+
+    private Lookup lookup(GraphQlResponse response, Outcome outcome) {
+        requests.get(outcome).increment();
+        return new Lookup(response, outcome);
+    }
+
+    private CompletableFuture<GraphQlResponse> load(String key, Supplier<CompletableFuture<Loaded>> loader) {
+        CompletableFuture<GraphQlResponse> promise = new CompletableFuture<>();
+        CompletableFuture<GraphQlResponse> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            return existing;
+        }
+        long startEpoch = epoch.get();
+        try {
+            loader.get().whenComplete((loaded, t) -> {
+                if (t == null) {
+                    store(key, loaded, startEpoch);
+                }
+                inFlight.remove(key, promise);
+                if (t != null) {
+                    promise.completeExceptionally(unwrap(t));
+                } else {
+                    promise.complete(loaded.response());
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+        }
+        return promise;
+    }
+
+    private void store(String key, Loaded loaded, long startEpoch) {
+        if (loaded.tags() == null || loaded.response().body().length > properties.getMaxBodyBytes()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long freshUntil = now + properties.getTtl().toNanos();
+        Entry entry = new Entry(loaded.response(), loaded.tags(), freshUntil,
+                freshUntil + properties.getStaleWhileRevalidate().toNanos());
+        Entry replaced = entries.put(key, entry);
+        // Before tagging, so that tags the two entries share keep the key
+        if (replaced != null) {
+            untag(key, replaced.tags());
+        }
+        for (String tag : loaded.tags()) {
+            keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        // Checked after publishing so an invalidation racing with the put cannot be missed
+        if (epoch.get() != startEpoch && entries.remove(key) != null) {
+            untag(key, loaded.tags());
+        }
+    }
+
+    private void untag(String key, Set<String> tags) {
+        for (String tag : tags) {
+            keysByTag.computeIfPresent(tag, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+}
@@ -0,0 +1,144 @@
+package com.oraxus.gateway.metrics;
+
+import com.oraxus.gateway.controller.AuthController;
+import com.oraxus.gateway.exception.AuthException;
+import com.oraxus.gateway.service.CognitoAppClients;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Latency timers for the auth flow. All of them publish percentile histograms so p99 can be computed and
+ * aggregated across instances by the metrics backend.
+ *
+ * <ul>
+ *   <li>{@code auth.requests}: each {@code /auth} endpoint, tagged endpoint, platform and outcome</li>
+ *   <li>{@code auth.cognito.requests}: each Cognito call, tagged operation, platform and outcome</li>
+ *   <li>{@code auth.user.ensure}: each batch sent to the user service, tagged outcome</li>
+ *   <li>{@code auth.errors}: a counter of error responses, tagged code and status</li>
+ * </ul>
+ *
+ * Outcome is {@code success}, {@code challenge}, {@code rejected} (a well-formed negative answer), the Cognito
+ * error code, or the gateway's own error code.
+ */
+@Component
+public class AuthMetrics {
+    public static final String ENDPOINT_TIMER = "auth.requests";
+    public static final String COGNITO_TIMER = "auth.cognito.requests";
+    public static final String ENSURE_TIMER = "auth.user.ensure";
+    public static final String ERROR_COUNTER = "auth.errors";
+
+    private final MeterRegistry registry;
+    // status -> code -> counter, so counting an error does not build tags
+    private final ConcurrentHashMap<HttpStatus, ConcurrentHashMap<String, Counter>> errorCounters =
+            new ConcurrentHashMap<>();
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Time a Cognito call from invocation to completion of its future.
+     */
+    public <T> CompletableFuture<T> timeCognito(String operation, String platform, Supplier<CompletableFuture<T>> call,
+                                                Function<? super T, String> successOutcome) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            recordCognito(operation, platform, errorOutcome(e), System.nanoTime() - start);
+            throw e;
+        }
+        return future.whenComplete((value, t) -> recordCognito(operation, platform,
+                t == null ? successOutcome.apply(value) : errorOutcome(t), System.nanoTime() - start));
+    }
+
+    public void recordEndpoint(String endpoint, String platform, Object response, Throwable error, long nanos) {
+        timer(ENDPOINT_TIMER, "endpoint", endpoint, platform(platform),
+                error == null ? responseOutcome(response) : errorOutcome(error))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordEnsureBatch(Throwable error, long nanos) {
+        Timer.builder(ENSURE_TIMER)
+                .tag("outcome", error == null ? "success" : errorOutcome(error))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordError(AuthException e) {
+        ConcurrentHashMap<String, Counter> byCode = errorCounters.get(e.getStatus());
+        Counter counter = byCode != null ? byCode.get(e.getCode()) : null;
+        if (counter == null) {
+            counter = errorCounters.computeIfAbsent(e.getStatus(), s -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(e.getCode(), code -> Counter.builder(ERROR_COUNTER)
+                            .description("Error responses by code")
+                            .tag("code", code)
+                            .tag("status", Integer.toString(e.getStatus().value()))
+                            .register(registry));
+        }
+        counter.increment();
+    }
+
+    private void recordCognito(String operation, String platform, String outcome, long nanos) {
+        timer(COGNITO_TIMER, "operation", operation, platform(platform), outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String kind, String value, String platform, String outcome) {
+        return Timer.builder(name)
+                .tag(kind, value)
+                .tag("platform", platform)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    private static String platform(String platform) {
+        return CognitoAppClients.Platform.of(platform).name().toLowerCase(Locale.ROOT);
+    }
+
+    static String responseOutcome(Object response) {
+        return switch (response) {
+            case AuthController.StartResponse r -> "challenge";
+            case AuthController.VerifyResponse r -> r.isSuccess() ? "success" : "challenge";
+            case AuthController.LoginResponse r ->
+                    r.isSuccess() ? "success" : r.getChallengeName() != null ? "challenge" : "rejected";
+            case AuthController.RegisterResponse r -> r.isSuccess() ? "success" : "rejected";
+            case AuthController.RefreshResponse r -> r.isSuccess() ? "success" : "rejected";
+            case null, default -> "success";
+        };
+    }
+
+    static String errorOutcome(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t instanceof AuthException e) {
+            return e.getCode();
+        }
+        if (t instanceof AwsServiceException e && e.awsErrorDetails() != null && e.awsErrorDetails().errorCode() != null) {
+            return e.awsErrorDetails().errorCode();
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,136 @@
+package com.oraxus.gateway.ratelimit;
+
+import com.oraxus.gateway.config.properties.RateLimitProperties;
+import com.oraxus.gateway.service.CognitoAppClients;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rate limits the auth endpoints per client IP, username and platform, and caps how many requests a single
+ * username may have in flight. Buckets live in the {@link RateLimitBackend} bean if one is defined, otherwise in
+ * process.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final RateLimitBackend backend;
+    private final Map<String, Specs> specsByEndpoint = new HashMap<>();
+    private final ConcurrentHashMap<String, AtomicInteger> inFlightByUser = new ConcurrentHashMap<>();
+
+    public AuthRateLimiter(RateLimitProperties properties, ObjectProvider<RateLimitBackend> backend) {
+        this.properties = properties;
+        this.backend = backend.getIfAvailable(() -> new LocalRateLimitBackend(properties.getMaxKeys()));
+        properties.getEndpoints().forEach((endpoint, limits) -> specsByEndpoint.put(endpoint,
+                new Specs(spec(limits.getIp()), spec(limits.getUsername()), spec(limits.getPlatform()))));
+    }
+
+    /**
+     * Check the buckets for a request and take a concurrency slot for its username, unless the endpoint is one of
+     * {@code ratelimit.uncappedEndpoints}.
+     *
+     * @return a permit that must be released once the request completes
+     * @throws RateLimitedException if any bucket is empty or the username already has too many requests in flight
+     */
+    public Permit acquire(String endpoint, String username, String platform, HttpServletRequest request) {
+        if (!properties.isEnabled()) {
+            return Permit.NONE;
+        }
+        String user = username == null || username.isBlank() ? null : username.trim().toLowerCase(Locale.ROOT);
+        Specs specs = specsByEndpoint.get(endpoint);
+        if (specs != null) {
+            check(endpoint + ":ip:" + clientIp(request), specs.ip());
+            if (user != null) {
+                check(endpoint + ":user:" + user, specs.username());
+            }
+            check(endpoint + ":platform:" + CognitoAppClients.Platform.of(platform), specs.platform());
+        }
+        return user == null || properties.getUncappedEndpoints().contains(endpoint) ? Permit.NONE : enter(user);
+    }
+
+    private void check(String key, BucketSpec spec) {
+        if (spec == null) {
+            return;
+        }
+        long waitNanos = backend.tryAcquire(key, spec);
+        if (waitNanos > 0) {
+            throw RateLimitedException.retryAfter(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+    }
+
+    private Permit enter(String user) {
+        int max = properties.getMaxConcurrentPerUser();
+        if (max <= 0) {
+            return Permit.NONE;
+        }
+        AtomicBoolean admitted = new AtomicBoolean();
+        inFlightByUser.compute(user, (k, count) -> {
+            if (count == null) {
+                count = new AtomicInteger();
+            }
+            if (count.get() < max) {
+                count.incrementAndGet();
+                admitted.set(true);
+            }
+            return count;
+        });
+        if (!admitted.get()) {
+            throw RateLimitedException.retryAfter(1);
+        }
+        return new Permit(() -> inFlightByUser.computeIfPresent(user,
+                (k, count) -> count.decrementAndGet() == 0 ? null : count));
+    }
+
+    String clientIp(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    int inFlight(String username) {
+        AtomicInteger count = inFlightByUser.get(username.toLowerCase(Locale.ROOT));
+        return count == null ? 0 : count.get();
+    }
+
+    private static BucketSpec spec(RateLimitProperties.Limit limit) {
+        return limit == null || limit.getCapacity() <= 0 ? null : new BucketSpec(limit.getCapacity(), limit.getPeriod());
+    }
+
+    private record Specs(BucketSpec ip, BucketSpec username, BucketSpec platform) {
+    }
+
+    /**
+     * A concurrency slot. Releasing more than once is a no-op.
+     */
+    public static final class Permit {
+        static final Permit NONE = new Permit(() -> {
+        });
+
+        private final Runnable onRelease;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(Runnable onRelease) {
+            this.onRelease = onRelease;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                onRelease.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.oraxus.gateway.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * A token bucket holding {@code capacity} tokens that refills completely, one token at a time, over {@code period}.
+ * Backends implement it as GCRA: one "theoretical arrival time" per key, advanced by the emission interval per
+ * request and allowed to run ahead of the clock by at most the burst tolerance.
+ */
+public record BucketSpec(int capacity, Duration period) {
+
+    public BucketSpec {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1");
+        if (period.isZero() || period.isNegative()) throw new IllegalArgumentException("period must be positive");
+    }
+
+    public long emissionIntervalNanos() {
+        return Math.max(1, period.toNanos() / capacity);
+    }
+
+    public long burstToleranceNanos() {
+        return emissionIntervalNanos() * (capacity - 1);
+    }
+}
@@ -0,0 +1,96 @@
+package com.oraxus.gateway.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process buckets: one {@link AtomicLong} per key in a {@link ConcurrentHashMap}, updated with a CAS loop, so
+ * the hot path takes no locks. Memory is bounded by {@code maxKeys}; when the table is full, buckets that have
+ * refilled completely (idle keys) are swept. If every tracked key is still active, the bucket closest to refilled
+ * among a sample of {@value #EVICTION_SAMPLE} is evicted to make room, approximating LRU: a new key is always
+ * limited, and the keys that are furthest over their limit are the last to be forgotten.
+ */
+public class LocalRateLimitBackend implements RateLimitBackend {
+    private static final Logger log = LoggerFactory.getLogger(LocalRateLimitBackend.class);
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+    private static final int EVICTION_SAMPLE = 16;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime() - SWEEP_INTERVAL_NANOS);
+
+    public LocalRateLimitBackend(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public long tryAcquire(String key, BucketSpec spec) {
+        long now = System.nanoTime();
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            if (buckets.size() >= maxKeys && !sweep(now)) {
+                evictOne();
+            }
+            tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        long interval = spec.emissionIntervalNanos();
+        long tolerance = spec.burstToleranceNanos();
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long wait = base - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Drop buckets that have fully refilled. Runs at most once per second.
+     *
+     * @return whether there is now room for another key
+     */
+    private boolean sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last >= SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) {
+            buckets.values().removeIf(tat -> tat.get() <= now);
+            log.debug("Rate limit sweep left {} keys", buckets.size());
+        }
+        return buckets.size() < maxKeys;
+    }
+
+    /**
+     * Remove the bucket with the earliest theoretical arrival time among the first {@value #EVICTION_SAMPLE},
+     * i.e. the least recently or least heavily used of them.
+     */
+    private void evictOne() {
+        String victim = null;
+        long earliest = Long.MAX_VALUE;
+        int sampled = 0;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            long tat = entry.getValue().get();
+            if (victim == null || tat - earliest < 0) {
+                victim = entry.getKey();
+                earliest = tat;
+            }
+            if (++sampled == EVICTION_SAMPLE) {
+                break;
+            }
+        }
+        if (victim != null) {
+            buckets.remove(victim);
+        }
+    }
+}
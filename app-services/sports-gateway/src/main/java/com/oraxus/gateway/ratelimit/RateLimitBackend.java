@@ -0,0 +1,15 @@
+package com.oraxus.gateway.ratelimit;
+
+/**
+ * Storage for rate-limit buckets. The default keeps them in process; a clustered deployment can provide a bean
+ * backed by a shared store so all gateway instances draw from the same buckets.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Take one token from the bucket for {@code key}.
+     *
+     * @return 0 if the request is allowed, otherwise the number of nanoseconds until a token becomes available
+     */
+    long tryAcquire(String key, BucketSpec spec);
+}
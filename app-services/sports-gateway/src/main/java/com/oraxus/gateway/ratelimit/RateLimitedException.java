@@ -0,0 +1,30 @@
+package com.oraxus.gateway.ratelimit;
+
+import com.oraxus.gateway.exception.AuthException;
+import org.springframework.http.HttpStatus;
+
+public class RateLimitedException extends AuthException {
+    // Shared instances for the usual waits, so rejecting a flood of requests allocates nothing
+    private static final RateLimitedException[] COMMON = new RateLimitedException[60];
+
+    static {
+        for (int i = 0; i < COMMON.length; i++) {
+            COMMON[i] = new RateLimitedException(i + 1);
+        }
+    }
+
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "rate.limited", "Too many requests, retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public static RateLimitedException retryAfter(long seconds) {
+        return seconds >= 1 && seconds <= COMMON.length ? COMMON[(int) seconds - 1] : new RateLimitedException(seconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
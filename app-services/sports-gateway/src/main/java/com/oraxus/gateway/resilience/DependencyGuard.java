@@ -0,0 +1,312 @@
+package com.oraxus.gateway.resilience;
+
+import com.oraxus.gateway.config.properties.ResilienceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Protects the gateway from one downstream dependency: a bulkhead caps concurrent calls, a circuit breaker stops
+ * calling once the recent failure rate crosses a threshold, and non-blocking calls are bounded by a timeout that
+ * tracks the dependency's observed latency. Rejected and timed-out calls fail with
+ * {@link DependencyUnavailableException}.
+ *
+ * <p>Blocking calls run on the caller's thread and cannot be interrupted, so they are only bulkheaded and counted;
+ * their timeout comes from the client itself.
+ */
+public class DependencyGuard {
+    private static final Logger log = LoggerFactory.getLogger(DependencyGuard.class);
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String name;
+    private final ResilienceProperties.Guard settings;
+    private final Predicate<Throwable> isFailure;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore bulkhead;
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+    private final Counter timeouts;
+    // Rejections are thrown often while the dependency is down, so they are built once
+    private final DependencyUnavailableException openError;
+    private final DependencyUnavailableException overloadedError;
+    private final DependencyUnavailableException timeoutError;
+
+    // Circuit breaker state, guarded by this
+    private volatile State state = State.CLOSED;
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private long openUntilNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    // Latency estimate in nanos, guarded by this
+    private double smoothedLatency;
+    private double latencyDeviation;
+    private volatile long timeoutNanos;
+
+    public DependencyGuard(String name, ResilienceProperties.Guard settings, Predicate<Throwable> isFailure,
+                           MeterRegistry meterRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.isFailure = isFailure;
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = new Semaphore(settings.getMaxConcurrentCalls());
+        this.window = new boolean[Math.max(1, settings.getSlidingWindowSize())];
+        this.timeoutNanos = settings.getInitialTimeout().toNanos();
+        this.smoothedLatency = timeoutNanos / 4.0;
+        this.latencyDeviation = smoothedLatency / 2;
+        this.openError = new DependencyUnavailableException(name + ".unavailable",
+                name + " is unavailable, retry later");
+        this.overloadedError = new DependencyUnavailableException(name + ".unavailable",
+                name + " is overloaded, retry later");
+        this.timeoutError = new DependencyUnavailableException(name + ".timeout",
+                name + " did not respond in time");
+
+        this.bulkheadRejections = rejections("bulkhead");
+        this.circuitRejections = rejections("circuit_open");
+        this.timeouts = rejections("timeout");
+        Gauge.builder("resilience.circuit.state", this, g -> g.state.ordinal())
+                .description("0 = closed, 1 = half-open, 2 = open")
+                .tag("dependency", name)
+                .register(meterRegistry);
+        Gauge.builder("resilience.bulkhead.in.use", this,
+                        g -> g.settings.getMaxConcurrentCalls() - g.bulkhead.availablePermits())
+                .tag("dependency", name)
+                .register(meterRegistry);
+        Gauge.builder("resilience.timeout", this, g -> g.timeoutNanos / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .tag("dependency", name)
+                .register(meterRegistry);
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public Duration currentTimeout() {
+        return Duration.ofNanos(timeoutNanos);
+    }
+
+    /**
+     * Run a call that returns a future. A future that is still pending after the current timeout is failed.
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        if (!settings.isEnabled()) {
+            return call.get();
+        }
+        Call guarded;
+        try {
+            guarded = enter();
+        } catch (DependencyUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            guarded.complete(e);
+            return CompletableFuture.failedFuture(e);
+        }
+        if (!future.isDone()) {
+            future = future.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+        return future.handle((value, t) -> {
+            Throwable cause = unwrap(t);
+            guarded.complete(cause);
+            if (cause != null) {
+                throw new CompletionException(translate(cause));
+            }
+            return value;
+        });
+    }
+
+    /**
+     * Run a call on subscription, for each subscription (so each retry is guarded on its own).
+     */
+    public <T> Mono<T> execute(Mono<T> call) {
+        if (!settings.isEnabled()) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            Call guarded = enter();
+            return call.timeout(Duration.ofNanos(timeoutNanos))
+                    .doOnSuccess(v -> guarded.complete(null))
+                    .doOnError(guarded::complete)
+                    .doOnCancel(guarded::abandon)
+                    .onErrorMap(this::translate);
+        });
+    }
+
+    private Call enter() {
+        if (!allowRequest()) {
+            circuitRejections.increment();
+            throw openError;
+        }
+        if (!bulkhead.tryAcquire()) {
+            releaseHalfOpenPermit();
+            bulkheadRejections.increment();
+            throw overloadedError;
+        }
+        return new Call(System.nanoTime());
+    }
+
+    private Throwable translate(Throwable t) {
+        if (t instanceof TimeoutException) {
+            timeouts.increment();
+            return timeoutError;
+        }
+        return t;
+    }
+
+    private boolean allowRequest() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openUntilNanos < 0) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                halfOpenPermits = settings.getHalfOpenCalls();
+                halfOpenSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits <= 0) {
+                    return false;
+                }
+                halfOpenPermits--;
+            }
+            return true;
+        }
+    }
+
+    private synchronized void releaseHalfOpenPermit() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    private synchronized void record(long latencyNanos, boolean failed) {
+        if (!failed) {
+            updateTimeout(latencyNanos);
+        }
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failed) {
+                    open();
+                } else if (++halfOpenSuccesses >= settings.getHalfOpenCalls()) {
+                    resetWindow();
+                    transition(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                if (windowCount == window.length) {
+                    if (window[windowIndex]) windowFailures--;
+                } else {
+                    windowCount++;
+                }
+                window[windowIndex] = failed;
+                if (failed) windowFailures++;
+                windowIndex = (windowIndex + 1) % window.length;
+                if (windowCount >= settings.getMinimumCalls()
+                        && windowFailures * 100 >= settings.getFailureRateThreshold() * windowCount) {
+                    open();
+                }
+            }
+            case OPEN -> {
+                // Outcome of a call started before the circuit opened
+            }
+        }
+    }
+
+    private void updateTimeout(long latencyNanos) {
+        // Same smoothing as TCP's retransmission timeout (RFC 6298)
+        latencyDeviation = 0.75 * latencyDeviation + 0.25 * Math.abs(smoothedLatency - latencyNanos);
+        smoothedLatency = 0.875 * smoothedLatency + 0.125 * latencyNanos;
+        long target = (long) (smoothedLatency + 4 * latencyDeviation);
+        timeoutNanos = Math.clamp(target, settings.getMinTimeout().toNanos(), settings.getMaxTimeout().toNanos());
+    }
+
+    private void open() {
+        openUntilNanos = System.nanoTime() + settings.getOpenDuration().toNanos();
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    private void transition(State to) {
+        State from = state;
+        if (from == to) {
+            return;
+        }
+        state = to;
+        log.warn("Circuit for {} changed from {} to {}", name, from, to);
+        meterRegistry.counter("resilience.circuit.transitions",
+                "dependency", name, "from", from.name().toLowerCase(), "to", to.name().toLowerCase()).increment();
+    }
+
+    private Counter rejections(String reason) {
+        return Counter.builder("resilience.calls.rejected")
+                .tag("dependency", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    /**
+     * One admitted call; holds a bulkhead permit until completed or abandoned.
+     */
+    private final class Call {
+        private final long startNanos;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Call(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void complete(Throwable error) {
+            if (done.compareAndSet(false, true)) {
+                bulkhead.release();
+                record(System.nanoTime() - startNanos, error != null && isFailure.test(error));
+            }
+        }
+
+        void abandon() {
+            if (done.compareAndSet(false, true)) {
+                bulkhead.release();
+                releaseHalfOpenPermit();
+            }
+        }
+    }
+}
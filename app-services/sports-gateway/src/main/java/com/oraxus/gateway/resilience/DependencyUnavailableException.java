@@ -0,0 +1,15 @@
+package com.oraxus.gateway.resilience;
+
+import com.oraxus.gateway.exception.AuthException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * A call to a downstream dependency was not attempted (circuit open, bulkhead full) or did not answer in time.
+ * Codes are {@code <dependency>.unavailable} and {@code <dependency>.timeout}; answered with 503.
+ */
+public class DependencyUnavailableException extends AuthException {
+
+    public DependencyUnavailableException(String code, String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, code, message);
+    }
+}
@@ -0,0 +1,188 @@
+package com.oraxus.gateway.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.nimbusds.jwt.proc.ExpiredJWTException;
+import com.oraxus.gateway.exception.AuthException;
+import com.oraxus.gateway.support.BoundedLruCache;
+import com.oraxus.gateway.tenant.Tenant;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates Cognito-issued JWTs locally against the JWKS of the user pool that issued them (RS256 signature,
+ * issuer, expiry, token_use and client id). The pool is picked by the token's {@code iss} claim among the trusted
+ * ones, so each tenant's users are checked against their own pool. Successful results are cached by SHA-256 of the
+ * token until the token expires, so a token seen before costs one hash and one map lookup.
+ */
+public class CognitoTokenValidator {
+
+    private static final AuthException MISSING_TOKEN = unauthorized("token.invalid", "Missing bearer token");
+    private static final AuthException EXPIRED_TOKEN = unauthorized("token.expired", "Token has expired");
+    private static final AuthException INVALID_TOKEN = unauthorized("token.invalid", "Invalid token");
+    private static final AuthException UNKNOWN_ISSUER = unauthorized("token.invalid", "Token was issued by an unknown pool");
+    private static final AuthException UNSUPPORTED_TOKEN_USE = unauthorized("token.invalid", "Unsupported token_use");
+    private static final AuthException UNKNOWN_CLIENT =
+            unauthorized("token.invalid", "Token was issued to an unknown client");
+    private static final AuthException INVALID_CLAIMS = unauthorized("token.invalid", "Invalid token claims");
+    private static final int MAX_CLOCK_SKEW_SECONDS = DefaultJWTClaimsVerifier.DEFAULT_MAX_CLOCK_SKEW_SECONDS;
+    private static final long MAX_CLOCK_SKEW_MILLIS = MAX_CLOCK_SKEW_SECONDS * 1000L;
+
+    /**
+     * A user pool whose tokens are accepted, on behalf of tenant {@code tenantId}. An empty {@code clientIds}
+     * accepts any client of the pool.
+     */
+    public record TrustedPool(String tenantId, String issuer, JWKSource<SecurityContext> keySource,
+                              Set<String> clientIds) {
+    }
+
+    private record PoolVerifier(TrustedPool pool, ConfigurableJWTProcessor<SecurityContext> processor) {
+    }
+
+    private final BoundedLruCache<String, VerifiedToken> verified;
+    private volatile Map<String, PoolVerifier> byIssuer = Map.of();
+
+    public CognitoTokenValidator(JWKSource<SecurityContext> keySource, String issuer,
+                                 Set<String> allowedClientIds, int cacheSize) {
+        this(List.of(new TrustedPool(Tenant.DEFAULT_ID, issuer, keySource, Set.copyOf(allowedClientIds))), cacheSize);
+    }
+
+    public CognitoTokenValidator(Collection<TrustedPool> pools, int cacheSize) {
+        this.verified = new BoundedLruCache<>(cacheSize);
+        setPools(pools);
+    }
+
+    /**
+     * Replace the trusted pools, e.g. after the tenants were reloaded. Verifiers of pools that are still trusted are
+     * kept; cached results are dropped, so tokens of a pool that is no longer trusted stop being accepted at once.
+     *
+     * @throws IllegalArgumentException if two pools have the same issuer
+     */
+    public synchronized void setPools(Collection<TrustedPool> pools) {
+        Map<String, PoolVerifier> previous = byIssuer;
+        Map<String, PoolVerifier> next = new HashMap<>();
+        for (TrustedPool pool : pools) {
+            PoolVerifier verifier = previous.get(pool.issuer());
+            if (verifier == null || !verifier.pool().equals(pool)) {
+                verifier = new PoolVerifier(pool, processor(pool));
+            }
+            if (next.putIfAbsent(pool.issuer(), verifier) != null) {
+                throw new IllegalArgumentException("Issuer " + pool.issuer() + " is trusted for more than one tenant");
+            }
+        }
+        byIssuer = Map.copyOf(next);
+        verified.clear();
+    }
+
+    /**
+     * @throws AuthException with code {@code token.invalid} or {@code token.expired}
+     */
+    public VerifiedToken validate(String token) {
+        if (token == null || token.isEmpty()) {
+            throw MISSING_TOKEN;
+        }
+
+        String key = sha256(token);
+        VerifiedToken cached = verified.get(key);
+        if (cached != null) {
+            // Same leeway as the claims verifier, so a token is not accepted once and then refused from the cache
+            if (cached.expiresAtMillis() + MAX_CLOCK_SKEW_MILLIS > System.currentTimeMillis()) {
+                return cached;
+            }
+            verified.remove(key);
+            throw EXPIRED_TOKEN;
+        }
+
+        VerifiedToken result = verify(token);
+        verified.put(key, result);
+        return result;
+    }
+
+    private VerifiedToken verify(String token) {
+        PoolVerifier verifier;
+        JWTClaimsSet claims;
+        try {
+            // Only picks the pool; the claims are trusted once that pool's processor has checked the signature
+            SignedJWT jwt = SignedJWT.parse(token);
+            verifier = byIssuer.get(jwt.getJWTClaimsSet().getIssuer());
+            if (verifier == null) {
+                throw UNKNOWN_ISSUER;
+            }
+            claims = verifier.processor().process(jwt, null);
+        } catch (ExpiredJWTException e) {
+            throw EXPIRED_TOKEN;
+        } catch (BadJOSEException e) {
+            throw INVALID_TOKEN;
+        } catch (ParseException | JOSEException e) {
+            throw INVALID_TOKEN;
+        }
+
+        try {
+            String tokenUse = claims.getStringClaim("token_use");
+            String clientId;
+            String username;
+            if ("access".equals(tokenUse)) {
+                clientId = claims.getStringClaim("client_id");
+                username = claims.getStringClaim("username");
+            } else if ("id".equals(tokenUse)) {
+                List<String> audience = claims.getAudience();
+                clientId = audience.isEmpty() ? null : audience.get(0);
+                username = claims.getStringClaim("cognito:username");
+            } else {
+                throw UNSUPPORTED_TOKEN_USE;
+            }
+
+            Set<String> clientIds = verifier.pool().clientIds();
+            if (!clientIds.isEmpty() && !clientIds.contains(clientId)) {
+                throw UNKNOWN_CLIENT;
+            }
+            return new VerifiedToken(claims.getSubject(), username, tokenUse, clientId, verifier.pool().tenantId(),
+                    claims.getExpirationTime().getTime(), claims);
+        } catch (ParseException e) {
+            throw INVALID_CLAIMS;
+        }
+    }
+
+    private static ConfigurableJWTProcessor<SecurityContext> processor(TrustedPool pool) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, pool.keySource()));
+        DefaultJWTClaimsVerifier<SecurityContext> claimsVerifier = new DefaultJWTClaimsVerifier<>(
+                new JWTClaimsSet.Builder().issuer(pool.issuer()).build(),
+                Set.of("sub", "exp", "iat", "token_use"));
+        claimsVerifier.setMaxClockSkew(MAX_CLOCK_SKEW_SECONDS);
+        processor.setJWTClaimsSetVerifier(claimsVerifier);
+        return processor;
+    }
+
+    private static AuthException unauthorized(String code, String message) {
+        return new AuthException(HttpStatus.UNAUTHORIZED, code, message);
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
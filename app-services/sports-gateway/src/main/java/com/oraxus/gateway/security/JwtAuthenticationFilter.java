@@ -0,0 +1,80 @@
+package com.oraxus.gateway.security;
+
+import com.oraxus.gateway.exception.AuthException;
+import com.oraxus.gateway.exception.ErrorResponses;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Requires a valid Cognito bearer token on the configured protected paths. On optional paths a token is verified
+ * when one is sent (an invalid one is still rejected) and the request passes without one. The verified token is
+ * exposed to handlers as the {@link VerifiedToken#REQUEST_ATTRIBUTE} request attribute.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final CognitoTokenValidator tokenValidator;
+    private final List<PathPattern> protectedPaths;
+    private final List<PathPattern> optionalPaths;
+    private final ErrorResponses errorResponses;
+
+    public JwtAuthenticationFilter(CognitoTokenValidator tokenValidator, List<String> protectedPaths,
+                                   List<String> optionalPaths, ErrorResponses errorResponses) {
+        this.tokenValidator = tokenValidator;
+        this.errorResponses = errorResponses;
+        this.protectedPaths = protectedPaths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.optionalPaths = optionalPaths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        PathContainer path = path(request);
+        return !matches(protectedPaths, path) && !matches(optionalPaths, path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String token = header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())
+                ? header.substring(BEARER_PREFIX.length()).trim()
+                : null;
+        if (token == null && !matches(protectedPaths, path(request))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, tokenValidator.validate(token));
+        } catch (AuthException e) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            errorResponses.write(e, request.getHeader(HttpHeaders.ACCEPT), response);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static PathContainer path(HttpServletRequest request) {
+        return PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    private static boolean matches(List<PathPattern> patterns, PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
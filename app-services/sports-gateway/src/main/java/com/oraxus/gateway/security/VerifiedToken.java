@@ -0,0 +1,30 @@
+package com.oraxus.gateway.security;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * A Cognito access or id token whose signature, issuer, expiry and audience have been checked. {@code tenant} is the
+ * id of the tenant whose pool issued it. Stored on the request under {@link #REQUEST_ATTRIBUTE} by
+ * {@link JwtAuthenticationFilter}.
+ */
+public record VerifiedToken(String subject, String username, String tokenUse, String clientId, String tenant,
+                            long expiresAtMillis, JWTClaimsSet claims) {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    /**
+     * Whether the token's {@code cognito:groups} claim lists {@code group}.
+     */
+    public boolean hasGroup(String group) {
+        List<String> groups;
+        try {
+            groups = claims.getStringListClaim("cognito:groups");
+        } catch (ParseException e) {
+            return false;
+        }
+        return groups != null && groups.contains(group);
+    }
+}
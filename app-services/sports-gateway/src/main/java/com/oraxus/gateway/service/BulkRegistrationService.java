@@ -0,0 +1,264 @@
+package com.oraxus.gateway.service;
+
+import com.oraxus.gateway.config.properties.BulkRegistrationProperties;
+import com.oraxus.gateway.controller.AuthController;
+import com.oraxus.gateway.controller.BulkRegistrationController;
+import com.oraxus.gateway.exception.AuthException;
+import com.oraxus.gateway.ratelimit.BucketSpec;
+import com.oraxus.gateway.ratelimit.LocalRateLimitBackend;
+import com.oraxus.gateway.ratelimit.RateLimitBackend;
+import com.oraxus.gateway.resilience.DependencyUnavailableException;
+import com.oraxus.gateway.tenant.Tenant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Registers users from an NDJSON upload, one {@link AuthController.RegisterRequest} per line, and writes one
+ * result line per user as soon as that user is done, followed by a summary line.
+ *
+ * <p>The upload is read only as fast as users can be created: at most {@code maxConcurrency} registrations are in
+ * flight and new ones start at {@code usersPerSecond}, drawn from a single bucket in the {@link RateLimitBackend}
+ * so concurrent uploads (and, with a shared backend, other instances) stay under the Cognito quota together.
+ * Throttled and circuit-rejected Cognito calls are retried with backoff, per step, so a user whose password step
+ * is throttled is not created twice. Created users are handed to the {@link UserProvisioner}, which ensures them
+ * in the user service in batches.
+ */
+@Service
+public class BulkRegistrationService {
+    private static final Logger log = LoggerFactory.getLogger(BulkRegistrationService.class);
+    private static final String BUCKET_KEY = "bulk-register";
+
+    private final CognitoService cognitoService;
+    private final UserProvisioner userProvisioner;
+    private final BulkRegistrationProperties properties;
+    private final RateLimitBackend backend;
+    private final BucketSpec pace;
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+
+    public BulkRegistrationService(CognitoService cognitoService, UserProvisioner userProvisioner,
+                                   BulkRegistrationProperties properties, ObjectProvider<RateLimitBackend> backend,
+                                   JsonMapper jsonMapper) {
+        this.cognitoService = cognitoService;
+        this.userProvisioner = userProvisioner;
+        this.properties = properties;
+        this.backend = backend.getIfAvailable(() -> new LocalRateLimitBackend(1));
+        this.pace = new BucketSpec(properties.getUsersPerSecond(), Duration.ofSeconds(1));
+        this.requestReader = jsonMapper.readerFor(AuthController.RegisterRequest.class);
+        this.resultWriter = jsonMapper.writer();
+    }
+
+    /**
+     * Process {@code upload} to the end (or to {@code maxUsers}) on the calling thread, registering the users in
+     * {@code tenant}'s pool and writing results to {@code out}. Stops reading early if the client goes away.
+     */
+    public void register(Tenant tenant, InputStream upload, OutputStream out) throws IOException {
+        int maxConcurrency = Math.max(1, properties.getMaxConcurrency());
+        Semaphore slots = new Semaphore(maxConcurrency);
+        ResultSink sink = new ResultSink(out);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(upload, StandardCharsets.UTF_8));
+
+        int lineNumber = 0;
+        int users = 0;
+        boolean truncated = false;
+        try {
+            String line;
+            while (!sink.isClosed() && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (users == properties.getMaxUsers()) {
+                    truncated = true;
+                    break;
+                }
+                users++;
+
+                AuthController.RegisterRequest req;
+                try {
+                    req = requestReader.readValue(line);
+                } catch (JacksonException e) {
+                    sink.failed(lineNumber, null, "invalid.request", "Line is not a registration object");
+                    continue;
+                }
+                String username = cognitoService.normalizeUsername(req.getUsername());
+                if (username == null || username.isEmpty() || req.getPassword() == null || req.getPassword().isEmpty()) {
+                    sink.failed(lineNumber, username, "invalid.request", "Username and password are required");
+                    continue;
+                }
+
+                awaitTurn();
+                slots.acquire();
+                int n = lineNumber;
+                CompletableFuture<Void> registration;
+                try {
+                    registration = register(tenant, username, req);
+                } catch (RuntimeException e) {
+                    registration = CompletableFuture.failedFuture(e);
+                }
+                registration.whenComplete((v, t) -> {
+                    try {
+                        if (t == null) {
+                            sink.succeeded(n, username);
+                        } else {
+                            fail(sink, n, username, unwrap(t));
+                        }
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Bulk registration interrupted");
+        } finally {
+            // Wait for the registrations still in flight so their results are written before the summary
+            slots.acquireUninterruptibly(maxConcurrency);
+        }
+        sink.summary(truncated);
+    }
+
+    /**
+     * AdminCreateUser is not idempotent, so it is only retried when Cognito surely did not act on it: throttled, or
+     * never sent because the circuit was open or the bulkhead full. After a timeout the user may well exist, and the
+     * line fails with {@code cognito.timeout}. Setting the password can be repeated, so any of these are retried.
+     */
+    private CompletableFuture<Void> register(Tenant tenant, String username, AuthController.RegisterRequest req) {
+        return withRetry(() -> cognitoService.createUser(tenant, username, req.getEmail(), req.getPhoneNumber()),
+                BulkRegistrationService::wasNotAttempted, 0)
+                .thenCompose(created -> withRetry(() -> cognitoService.setPermanentPassword(tenant, username, req.getPassword()),
+                        BulkRegistrationService::isRetryable, 0))
+                .thenRun(() -> userProvisioner.enqueue(tenant.qualify(username)));
+    }
+
+    private <T> CompletableFuture<T> withRetry(Supplier<CompletableFuture<T>> call, Predicate<Throwable> retryable,
+                                               int attempt) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.exceptionallyCompose(t -> {
+            Throwable cause = unwrap(t);
+            if (attempt >= properties.getMaxRetries() || !retryable.test(cause)) {
+                return CompletableFuture.failedFuture(cause);
+            }
+            // Exponential backoff with jitter so throttled workers do not retry in lockstep
+            long backoff = properties.getRetryBackoff().toMillis() << attempt;
+            long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+            return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                    .thenCompose(v -> withRetry(call, retryable, attempt + 1));
+        });
+    }
+
+    private static boolean isRetryable(Throwable t) {
+        return (t instanceof AwsServiceException e && e.isThrottlingException())
+                || t instanceof DependencyUnavailableException;
+    }
+
+    private static boolean wasNotAttempted(Throwable t) {
+        return (t instanceof AwsServiceException e && e.isThrottlingException())
+                || (t instanceof DependencyUnavailableException e && e.getCode().endsWith(".unavailable"));
+    }
+
+    private void awaitTurn() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = backend.tryAcquire(BUCKET_KEY, pace)) > 0) {
+            LockSupport.parkNanos(waitNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private static void fail(ResultSink sink, int line, String username, Throwable t) {
+        if (t instanceof AuthException e) {
+            sink.failed(line, username, e.getCode(), e.getMessage());
+        } else if (t instanceof AwsServiceException e && e.awsErrorDetails() != null) {
+            sink.failed(line, username, e.awsErrorDetails().errorCode(), e.awsErrorDetails().errorMessage());
+        } else {
+            log.error("Unexpected error registering {}", username, t);
+            sink.failed(line, username, "internal.error", "Internal error");
+        }
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    /**
+     * Writes result lines from whichever thread completes a registration. Once a write fails the client is
+     * assumed gone and further results are discarded.
+     */
+    private final class ResultSink {
+        private final OutputStream out;
+        private int succeeded;
+        private int failed;
+        private volatile boolean closed;
+
+        ResultSink(OutputStream out) {
+            this.out = out;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        synchronized void succeeded(int line, String username) {
+            succeeded++;
+            write(new BulkRegistrationController.BulkRegisterResult(line, username, true, null, null));
+        }
+
+        synchronized void failed(int line, String username, String error, String message) {
+            failed++;
+            write(new BulkRegistrationController.BulkRegisterResult(line, username, false, error, message));
+        }
+
+        synchronized void summary(boolean truncated) {
+            write(new BulkRegistrationController.BulkRegisterSummary(succeeded + failed, succeeded, failed, truncated));
+        }
+
+        private void write(Object value) {
+            if (closed) {
+                return;
+            }
+            try {
+                out.write(resultWriter.writeValueAsBytes(value));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                log.info("Bulk registration client went away: {}", e.getMessage());
+                closed = true;
+            }
+        }
+    }
+}
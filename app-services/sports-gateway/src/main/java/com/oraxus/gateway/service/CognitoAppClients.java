@@ -0,0 +1,86 @@
+package com.oraxus.gateway.service;
+
+import com.oraxus.gateway.exception.AuthException;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The Cognito app client (id and secret hasher) to use for each platform, resolved once from configuration.
+ * <p>
+ * Resolution rules: "web" and "mobile" use their own client id and fall back to the legacy {@code clientId};
+ * no platform prefers the web client, then the legacy one; any other platform uses the legacy one. A secret is
+ * only attached where the matching web/mobile secret is configured.
+ */
+public class CognitoAppClients {
+
+    public enum Platform {
+        DEFAULT, WEB, MOBILE, OTHER;
+
+        public static Platform of(String platform) {
+            if (platform == null) return DEFAULT;
+            if ("web".equalsIgnoreCase(platform)) return WEB;
+            if ("mobile".equalsIgnoreCase(platform)) return MOBILE;
+            return OTHER;
+        }
+    }
+
+    /**
+     * A Cognito app client. {@code secretHasher} is null for public clients.
+     */
+    public record AppClient(String clientId, SecretHasher secretHasher) {
+
+        /**
+         * SECRET_HASH for the given username, or null when the client has no secret.
+         */
+        public String secretHash(String username) {
+            return secretHasher != null ? secretHasher.hash(username) : null;
+        }
+    }
+
+    private final AppClient[] byPlatform = new AppClient[Platform.values().length];
+
+    public CognitoAppClients(String clientId, String clientIdWeb, String clientIdMobile,
+                             String clientSecretWeb, String clientSecretMobile) {
+        byPlatform[Platform.DEFAULT.ordinal()] = client(firstNonEmpty(clientIdWeb, clientId),
+                firstNonEmpty(clientSecretWeb, clientSecretMobile));
+        byPlatform[Platform.WEB.ordinal()] = client(firstNonEmpty(clientIdWeb, clientId), clientSecretWeb);
+        byPlatform[Platform.MOBILE.ordinal()] = client(firstNonEmpty(clientIdMobile, clientId), clientSecretMobile);
+        byPlatform[Platform.OTHER.ordinal()] = client(clientId, null);
+    }
+
+    /**
+     * Every configured client id: the audiences a token from this pool may carry.
+     */
+    public Set<String> clientIds() {
+        return Arrays.stream(byPlatform).filter(Objects::nonNull).map(AppClient::clientId)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public AppClient resolve(String platform) {
+        Platform p = Platform.of(platform);
+        AppClient client = byPlatform[p.ordinal()];
+        if (client == null) {
+            throw new AuthException("cognito.client.missing", p == Platform.DEFAULT
+                    ? "No Cognito clientId configured"
+                    : "No Cognito clientId configured for platform");
+        }
+        return client;
+    }
+
+    private static AppClient client(String clientId, String clientSecret) {
+        if (isEmpty(clientId)) return null;
+        return new AppClient(clientId, isEmpty(clientSecret) ? null : new SecretHasher(clientId, clientSecret));
+    }
+
+    private static String firstNonEmpty(String first, String second) {
+        if (!isEmpty(first)) return first;
+        return isEmpty(second) ? null : second;
+    }
+
+    private static boolean isEmpty(String s) {
+        return s == null || s.isEmpty();
+    }
+}
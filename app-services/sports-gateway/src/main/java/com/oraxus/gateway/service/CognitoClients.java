@@ -0,0 +1,87 @@
+package com.oraxus.gateway.service;
+
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClientBuilder;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClientBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cognito SDK clients, one per region and built on first use. They all share one HTTP client and so one
+ * connection pool (the SDK leaves shared HTTP clients open; their beans close them), and one credentials provider.
+ * Adding tenants therefore adds neither SDK clients nor connection pools unless a tenant brings a new region.
+ */
+public class CognitoClients implements AutoCloseable {
+
+    private final AwsCredentialsProvider credentialsProvider;
+    private final SdkHttpClient httpClient;
+    private final SdkAsyncHttpClient asyncHttpClient;
+    private final String endpoint;
+    private final Duration apiCallTimeout;
+    private final ConcurrentHashMap<String, CognitoIdentityProviderClient> syncClients = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CognitoIdentityProviderAsyncClient> asyncClients = new ConcurrentHashMap<>();
+
+    /**
+     * @param httpClient      shared blocking HTTP client, or null if only async clients are used
+     * @param asyncHttpClient shared non-blocking HTTP client, or null if only blocking clients are used
+     * @param endpoint        endpoint override for every region, or null
+     * @param apiCallTimeout  bound on blocking calls, which the circuit breaker cannot time out
+     */
+    public CognitoClients(AwsCredentialsProvider credentialsProvider, SdkHttpClient httpClient,
+                          SdkAsyncHttpClient asyncHttpClient, String endpoint, Duration apiCallTimeout) {
+        this.credentialsProvider = credentialsProvider;
+        this.httpClient = httpClient;
+        this.asyncHttpClient = asyncHttpClient;
+        this.endpoint = endpoint;
+        this.apiCallTimeout = apiCallTimeout;
+    }
+
+    public CognitoIdentityProviderClient sync(String region) {
+        if (httpClient == null) {
+            throw new IllegalStateException("No blocking HTTP client configured for Cognito");
+        }
+        CognitoIdentityProviderClient client = syncClients.get(region);
+        return client != null ? client : syncClients.computeIfAbsent(region, r -> {
+            CognitoIdentityProviderClientBuilder builder = CognitoIdentityProviderClient.builder()
+                    .region(Region.of(r))
+                    .credentialsProvider(credentialsProvider)
+                    .httpClient(httpClient)
+                    .overrideConfiguration(o -> o.apiCallTimeout(apiCallTimeout));
+            if (StringUtils.hasText(endpoint)) {
+                builder.endpointOverride(URI.create(endpoint));
+            }
+            return builder.build();
+        });
+    }
+
+    public CognitoIdentityProviderAsyncClient async(String region) {
+        if (asyncHttpClient == null) {
+            throw new IllegalStateException("No non-blocking HTTP client configured for Cognito");
+        }
+        CognitoIdentityProviderAsyncClient client = asyncClients.get(region);
+        return client != null ? client : asyncClients.computeIfAbsent(region, r -> {
+            CognitoIdentityProviderAsyncClientBuilder builder = CognitoIdentityProviderAsyncClient.builder()
+                    .region(Region.of(r))
+                    .credentialsProvider(credentialsProvider)
+                    .httpClient(asyncHttpClient);
+            if (StringUtils.hasText(endpoint)) {
+                builder.endpointOverride(URI.create(endpoint));
+            }
+            return builder.build();
+        });
+    }
+
+    @Override
+    public void close() {
+        syncClients.values().forEach(CognitoIdentityProviderClient::close);
+        asyncClients.values().forEach(CognitoIdentityProviderAsyncClient::close);
+    }
+}
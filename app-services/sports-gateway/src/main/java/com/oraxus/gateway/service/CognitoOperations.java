@@ -0,0 +1,136 @@
+package com.oraxus.gateway.service;
+
+import com.oraxus.gateway.config.ResilienceConfig;
+import com.oraxus.gateway.config.properties.CognitoProperties;
+import com.oraxus.gateway.config.properties.ResilienceProperties;
+import com.oraxus.gateway.metrics.AuthMetrics;
+import com.oraxus.gateway.resilience.DependencyGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminRespondToAuthChallengeRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminRespondToAuthChallengeResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminSetUserPasswordRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminSetUserPasswordResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The Cognito calls the gateway makes, exposed as futures regardless of which SDK client is configured.
+ * With {@code cognito.async.enabled} the non-blocking client is used and no request thread waits on Cognito;
+ * otherwise the blocking client runs on the caller's thread and returns an already completed future.
+ * Every call goes through a bulkhead and circuit breaker for its region ({@code cognitoGuard} for the default
+ * region, {@code cognito-<region>} guards created on first use for others, so an outage in one region does not
+ * open the circuit for the rest) and is timed per operation and platform, the platform being the one whose app
+ * client the request uses.
+ */
+@Component
+public class CognitoOperations {
+
+    private record Regional(CognitoIdentityProviderClient syncClient, CognitoIdentityProviderAsyncClient asyncClient,
+                            DependencyGuard guard) {
+    }
+
+    private final String defaultRegion;
+    private final Regional defaultRegional;
+    private final CognitoClients cognitoClients;
+    private final ResilienceProperties resilienceProperties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Regional> regions = new ConcurrentHashMap<>();
+    private final AuthMetrics metrics;
+
+    public CognitoOperations(ObjectProvider<CognitoIdentityProviderClient> cognitoClient,
+                             ObjectProvider<CognitoIdentityProviderAsyncClient> cognitoAsyncClient,
+                             @Qualifier("cognitoGuard") DependencyGuard guard,
+                             CognitoClients cognitoClients,
+                             CognitoProperties cognitoProperties,
+                             ResilienceProperties resilienceProperties,
+                             MeterRegistry meterRegistry,
+                             AuthMetrics metrics) {
+        CognitoIdentityProviderAsyncClient asyncClient = cognitoAsyncClient.getIfAvailable();
+        this.defaultRegional = new Regional(asyncClient == null ? cognitoClient.getObject() : null, asyncClient, guard);
+        this.defaultRegion = cognitoProperties.getRegion();
+        this.cognitoClients = cognitoClients;
+        this.resilienceProperties = resilienceProperties;
+        this.meterRegistry = meterRegistry;
+        this.metrics = metrics;
+    }
+
+    public boolean isAsync() {
+        return defaultRegional.asyncClient() != null;
+    }
+
+    public CompletableFuture<AdminInitiateAuthResponse> adminInitiateAuth(
+            String region, AdminInitiateAuthRequest req, String platform) {
+        Regional r = regional(region);
+        Supplier<CompletableFuture<AdminInitiateAuthResponse>> invocation = () -> r.asyncClient() != null
+                ? r.guard().execute(() -> r.asyncClient().adminInitiateAuth(req))
+                : r.guard().execute(() -> call(() -> r.syncClient().adminInitiateAuth(req)));
+        return metrics.timeCognito("adminInitiateAuth", platform, invocation,
+                resp -> resp.authenticationResult() == null ? "challenge" : "success");
+    }
+
+    public CompletableFuture<AdminRespondToAuthChallengeResponse> adminRespondToAuthChallenge(
+            String region, AdminRespondToAuthChallengeRequest req, String platform) {
+        Regional r = regional(region);
+        Supplier<CompletableFuture<AdminRespondToAuthChallengeResponse>> invocation = () -> r.asyncClient() != null
+                ? r.guard().execute(() -> r.asyncClient().adminRespondToAuthChallenge(req))
+                : r.guard().execute(() -> call(() -> r.syncClient().adminRespondToAuthChallenge(req)));
+        return metrics.timeCognito("adminRespondToAuthChallenge", platform, invocation,
+                resp -> resp.authenticationResult() == null ? "challenge" : "success");
+    }
+
+    public CompletableFuture<AdminCreateUserResponse> adminCreateUser(
+            String region, AdminCreateUserRequest req, String platform) {
+        Regional r = regional(region);
+        Supplier<CompletableFuture<AdminCreateUserResponse>> invocation = () -> r.asyncClient() != null
+                ? r.guard().execute(() -> r.asyncClient().adminCreateUser(req))
+                : r.guard().execute(() -> call(() -> r.syncClient().adminCreateUser(req)));
+        return metrics.timeCognito("adminCreateUser", platform, invocation, resp -> "success");
+    }
+
+    public CompletableFuture<AdminSetUserPasswordResponse> adminSetUserPassword(
+            String region, AdminSetUserPasswordRequest req, String platform) {
+        Regional r = regional(region);
+        Supplier<CompletableFuture<AdminSetUserPasswordResponse>> invocation = () -> r.asyncClient() != null
+                ? r.guard().execute(() -> r.asyncClient().adminSetUserPassword(req))
+                : r.guard().execute(() -> call(() -> r.syncClient().adminSetUserPassword(req)));
+        return metrics.timeCognito("adminSetUserPassword", platform, invocation, resp -> "success");
+    }
+
+    /**
+     * Build the client and guard for {@code region} now rather than on its first call.
+     */
+    public void prepare(String region) {
+        regional(region);
+    }
+
+    private Regional regional(String region) {
+        if (region == null || region.equals(defaultRegion)) {
+            return defaultRegional;
+        }
+        Regional regional = regions.get(region);
+        return regional != null ? regional : regions.computeIfAbsent(region, r -> new Regional(
+                isAsync() ? null : cognitoClients.sync(r),
+                isAsync() ? cognitoClients.async(r) : null,
+                new DependencyGuard("cognito-" + r, resilienceProperties.getCognito(),
+                        ResilienceConfig::isCognitoFailure, meterRegistry)));
+    }
+
+    private static <T> CompletableFuture<T> call(Supplier<T> op) {
+        try {
+            return CompletableFuture.completedFuture(op.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -1,50 +1,86 @@
 package com.oraxus.gateway.service;
 
-import com.oraxus.gateway.config.properties.CognitoProperties;
 import com.oraxus.gateway.controller.AuthController;
 import com.oraxus.gateway.exception.AuthException;
+import com.oraxus.gateway.tenant.Tenant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserResponse;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthRequest;
-import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthResponse;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminRespondToAuthChallengeRequest;
-import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminRespondToAuthChallengeResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminSetUserPasswordRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminSetUserPasswordResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AuthFlowType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.CodeMismatchException;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.CognitoIdentityProviderException;
-import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthRequest;
-import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ExpiredCodeException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.LimitExceededException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.MessageActionType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyFailedAttemptsException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyRequestsException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserRequest;
-import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserResponse;
-import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminSetUserPasswordRequest;
-import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
-import software.amazon.awssdk.services.cognitoidentityprovider.model.MessageActionType;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Cognito sign-in and sign-up flows. Every call runs against the pool, app clients and region of the tenant
+ * it is given; users of non-default tenants are provisioned in the user service as {@code tenant:username}.
+ */
 @Service
 public class CognitoService {
     private static final Logger log = LoggerFactory.getLogger(CognitoService.class);
 
-    private final CognitoIdentityProviderClient cognitoClient;
-    private final CognitoProperties cognitoProperties;
-    private final UserServiceClient userServiceClient;
+    // Expected failures are shared instances; see AuthException
+    private static final AuthException USERNAME_REQUIRED = new AuthException("username.required", "Username is required");
+    private static final AuthException SESSION_AND_CODE_REQUIRED =
+            new AuthException("invalid.request", "Session and code are required");
+    private static final AuthException CREDENTIALS_REQUIRED =
+            new AuthException("invalid.request", "Username and password are required");
+    private static final AuthException REFRESH_TOKEN_REQUIRED =
+            new AuthException("invalid.request", "Refresh token is required");
+    private static final AuthException REFRESH_USERNAME_REQUIRED =
+            new AuthException("invalid.request", "Username is required to refresh tokens for this client");
+    private static final AuthException THROTTLED =
+            new AuthException(HttpStatus.TOO_MANY_REQUESTS, "cognito.throttled", "Too many requests, retry later");
+    private static final Failure START_FAILED = new Failure("cognito.start.failed", "Failed to start authentication");
+    private static final Failure VERIFY_FAILED = new Failure("cognito.verify.failed", "Failed to verify authentication");
+    private static final Failure REFRESH_FAILED = new Failure("cognito.refresh.failed", "Failed to refresh tokens");
+    private static final Failure INTERNAL = new Failure(AuthException.INTERNAL_ERROR, AuthException.INTERNAL_ERROR);
 
-    public CognitoService(CognitoIdentityProviderClient cognitoClient,
-                          CognitoProperties cognitoProperties,
-                          UserServiceClient userServiceClient) {
-        this.cognitoClient = cognitoClient;
-        this.cognitoProperties = cognitoProperties;
-        this.userServiceClient = userServiceClient;
+    /**
+     * What a Cognito error in one operation is answered with: 401 for a wrong code, password or token,
+     * otherwise 400.
+     */
+    private record Failure(AuthException rejected, AuthException unauthorized) {
+        Failure(String code, String message) {
+            this(new AuthException(code, message), new AuthException(HttpStatus.UNAUTHORIZED, code, message));
+        }
     }
 
-    private String normalizeUsername(String username) {
+    private final CognitoOperations cognitoOperations;
+    private final UserProvisioner userProvisioner;
+
+    // Refreshes currently waiting on Cognito, keyed by client id and refresh token
+    private final Map<String, CompletableFuture<AuthController.RefreshResponse>> inFlightRefreshes = new ConcurrentHashMap<>();
+
+    public CognitoService(CognitoOperations cognitoOperations, UserProvisioner userProvisioner) {
+        this.cognitoOperations = cognitoOperations;
+        this.userProvisioner = userProvisioner;
+    }
+
+    String normalizeUsername(String username) {
         if (username == null) return null;
         String s = username.trim();
         // if looks like phone and missing +, leave as-is; caller should provide E.164 if possible
@@ -55,276 +91,318 @@ public class CognitoService {
         return username != null && username.contains("@");
     }
 
-    public AuthController.StartResponse startAuth(String username, String platform) {
-        username = normalizeUsername(username);
+    public CompletableFuture<AuthController.StartResponse> startAuth(Tenant tenant, String rawUsername, String platform) {
+        String username = normalizeUsername(rawUsername);
         if (username == null || username.isEmpty()) {
-            throw new AuthException("username.required", "Username is required");
+            throw USERNAME_REQUIRED;
         }
 
-        try {
-            Map<String, String> authParams = new HashMap<>();
-            authParams.put("USERNAME", username);
-
-            // Optionally set delivery medium or other params for distinguishing email/phone
-            if (isEmail(username)) {
-                authParams.put("DELIVERY_MEDIUM", "EMAIL");
-            }
+        Map<String, String> authParams = new HashMap<>();
+        authParams.put("USERNAME", username);
 
-                String clientId = selectClientId(platform);
-                String clientSecret = selectClientSecret(platform);
+        // Optionally set delivery medium or other params for distinguishing email/phone
+        if (isEmail(username)) {
+            authParams.put("DELIVERY_MEDIUM", "EMAIL");
+        }
 
-                    // Add SECRET_HASH if client has secret
-                    if (clientSecret != null && !clientSecret.isEmpty()) {
-                    String secretHash = computeSecretHash(username, clientId, clientSecret);
-                    authParams.put("SECRET_HASH", secretHash);
-                    }
+        CognitoAppClients.AppClient client = tenant.appClients().resolve(platform);
 
-                    AdminInitiateAuthRequest req = AdminInitiateAuthRequest.builder()
-                    .userPoolId(cognitoProperties.getUserPoolId())
-                        .clientId(clientId)
-                    .authFlow(AuthFlowType.CUSTOM_AUTH)
-                    .authParameters(authParams)
-                    .build();
-
-            AdminInitiateAuthResponse resp = cognitoClient.adminInitiateAuth(req);
-
-            // Ensure user exists in user service (create if missing) — best-effort
-            try {
-                userServiceClient.ensureUserExists(username);
-            } catch (Exception e) {
-                log.warn("Failed to ensure user exists in user service: {}", e.getMessage());
-            }
-
-            return new AuthController.StartResponse(resp.session(), resp.challengeNameAsString());
-        } catch (CognitoIdentityProviderException e) {
-            log.warn("Cognito startAuth failed: {}", e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage());
-            throw new AuthException("cognito.start.failed", "Failed to start authentication");
-        } catch (Exception e) {
-            log.error("Unexpected error in startAuth", e);
-            throw new AuthException("internal.error", "Internal error");
+        // Add SECRET_HASH if client has secret
+        String secretHash = client.secretHash(username);
+        if (secretHash != null) {
+            authParams.put("SECRET_HASH", secretHash);
         }
+
+        AdminInitiateAuthRequest req = AdminInitiateAuthRequest.builder()
+                .userPoolId(tenant.userPoolId())
+                .clientId(client.clientId())
+                .authFlow(AuthFlowType.CUSTOM_AUTH)
+                .authParameters(authParams)
+                .build();
+
+        return cognitoOperations.adminInitiateAuth(tenant.region(), req, platform)
+                .handle((resp, t) -> {
+                    if (t != null) {
+                        throw failure(t, "startAuth", START_FAILED);
+                    }
+                    // Ensure user exists in user service (create if missing) — queued, off the request thread
+                    userProvisioner.enqueue(tenant.qualify(username));
+                    return new AuthController.StartResponse(resp.session(), resp.challengeNameAsString());
+                });
     }
 
-    public AuthController.VerifyResponse verifyChallenge(String username, String session, String code, String platform) {
-        username = normalizeUsername(username);
+    public CompletableFuture<AuthController.VerifyResponse> verifyChallenge(Tenant tenant, String rawUsername, String session, String code, String platform) {
+        String username = normalizeUsername(rawUsername);
         if (session == null || session.isEmpty() || code == null || code.isEmpty()) {
-            throw new AuthException("invalid.request", "Session and code are required");
+            throw SESSION_AND_CODE_REQUIRED;
         }
 
-        try {
-            Map<String, String> challengeResponses = new HashMap<>();
-            challengeResponses.put("USERNAME", username);
-            challengeResponses.put("ANSWER", code);
+        Map<String, String> challengeResponses = new HashMap<>();
+        challengeResponses.put("USERNAME", username);
+        challengeResponses.put("ANSWER", code);
 
-                String clientId = selectClientId(platform);
+        CognitoAppClients.AppClient client = tenant.appClients().resolve(platform);
+        String secretHash = client.secretHash(username);
+        if (secretHash != null) {
+            challengeResponses.put("SECRET_HASH", secretHash);
+        }
 
-                    String clientSecret = selectClientSecret(platform);
-                    if (clientSecret != null && !clientSecret.isEmpty()) {
-                    String secretHash = computeSecretHash(username, clientId, clientSecret);
-                    challengeResponses.put("SECRET_HASH", secretHash);
+        AdminRespondToAuthChallengeRequest req = AdminRespondToAuthChallengeRequest.builder()
+                .userPoolId(tenant.userPoolId())
+                .clientId(client.clientId())
+                .challengeName("CUSTOM_CHALLENGE")
+                .session(session)
+                .challengeResponses(challengeResponses)
+                .build();
+
+        return cognitoOperations.adminRespondToAuthChallenge(tenant.region(), req, platform)
+                .handle((resp, t) -> {
+                    if (t != null) {
+                        throw failure(t, "verifyChallenge", VERIFY_FAILED);
                     }
-
-                    AdminRespondToAuthChallengeRequest req = AdminRespondToAuthChallengeRequest.builder()
-                        .userPoolId(cognitoProperties.getUserPoolId())
-                        .clientId(clientId)
-                        .challengeName("CUSTOM_CHALLENGE")
-                        .session(session)
-                        .challengeResponses(challengeResponses)
-                        .build();
-
-            AdminRespondToAuthChallengeResponse resp = cognitoClient.adminRespondToAuthChallenge(req);
-
-            boolean success = resp.authenticationResult() != null;
-            String accessToken = null;
-            String idToken = null;
-            String refreshToken = null;
-            if (success) {
-                accessToken = resp.authenticationResult().accessToken();
-                idToken = resp.authenticationResult().idToken();
-                refreshToken = resp.authenticationResult().refreshToken();
-            }
-
-            return new AuthController.VerifyResponse(success, accessToken, idToken, refreshToken);
-        } catch (CognitoIdentityProviderException e) {
-            log.warn("Cognito verifyChallenge failed: {}", e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage());
-            throw new AuthException("cognito.verify.failed", "Failed to verify authentication");
-        } catch (Exception e) {
-            log.error("Unexpected error in verifyChallenge", e);
-            throw new AuthException("internal.error", "Internal error");
-        }
+                    boolean success = resp.authenticationResult() != null;
+                    String accessToken = null;
+                    String idToken = null;
+                    String refreshToken = null;
+                    if (success) {
+                        accessToken = resp.authenticationResult().accessToken();
+                        idToken = resp.authenticationResult().idToken();
+                        refreshToken = resp.authenticationResult().refreshToken();
+                    }
+                    return new AuthController.VerifyResponse(success, accessToken, idToken, refreshToken);
+                });
     }
 
     /**
      * Register a new user in Cognito with username/password and optional email/phone.
      * Uses AdminCreateUser + AdminSetUserPassword to set a permanent password.
      */
-    public AuthController.RegisterResponse registerUser(String username, String password, String email, String phoneNumber) {
-        username = normalizeUsername(username);
+    public CompletableFuture<AuthController.RegisterResponse> registerUser(Tenant tenant, String rawUsername, String password, String email, String phoneNumber) {
+        String username = normalizeUsername(rawUsername);
         if (username == null || username.isEmpty() || password == null || password.isEmpty()) {
-            throw new AuthException("invalid.request", "Username and password are required");
+            throw CREDENTIALS_REQUIRED;
         }
 
-        try {
-            // Build attributes
-            java.util.List<AttributeType> attrs = new java.util.ArrayList<>();
-            if (email != null && !email.isEmpty()) {
-                attrs.add(AttributeType.builder().name("email").value(email).build());
-            }
-            if (phoneNumber != null && !phoneNumber.isEmpty()) {
-                attrs.add(AttributeType.builder().name("phone_number").value(phoneNumber).build());
-            }
-
-            AdminCreateUserRequest createReq = AdminCreateUserRequest.builder()
-                    .userPoolId(cognitoProperties.getUserPoolId())
-                    .username(username)
-                    .userAttributes(attrs)
-                    .messageAction(MessageActionType.SUPPRESS) // don't send invite
-                    .build();
-
-            AdminCreateUserResponse createResp = cognitoClient.adminCreateUser(createReq);
-
-            // Set permanent password
-            AdminSetUserPasswordRequest pwdReq = AdminSetUserPasswordRequest.builder()
-                    .userPoolId(cognitoProperties.getUserPoolId())
-                    .username(username)
-                    .password(password)
-                    .permanent(true)
-                    .build();
-
-            cognitoClient.adminSetUserPassword(pwdReq);
-
-            // Ensure application profile exists
-            try {
-                userServiceClient.ensureUserExists(username);
-            } catch (Exception e) {
-                log.warn("Failed to ensure user exists in user service after register: {}", e.getMessage());
-            }
-
-            return new AuthController.RegisterResponse(true, "User registered");
-        } catch (CognitoIdentityProviderException e) {
-            log.warn("Cognito register failed: {}", e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage());
-            return new AuthController.RegisterResponse(false, e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage());
-        } catch (Exception e) {
-            log.error("Unexpected error in registerUser", e);
-            throw new AuthException("internal.error", "Internal error");
+        return createUser(tenant, username, email, phoneNumber)
+                .thenCompose(created -> setPermanentPassword(tenant, username, password))
+                .handle((resp, t) -> {
+                    if (t != null) {
+                        Throwable cause = unwrap(t);
+                        if (isThrottled(cause)) {
+                            throw THROTTLED;
+                        }
+                        if (cause instanceof CognitoIdentityProviderException e) {
+                            log.warn("Cognito register failed: {}", errorMessage(e));
+                            return new AuthController.RegisterResponse(false, errorMessage(e));
+                        }
+                        throw failure(cause, "registerUser", INTERNAL);
+                    }
+                    // Ensure application profile exists — queued, off the request thread
+                    userProvisioner.enqueue(tenant.qualify(username));
+                    return new AuthController.RegisterResponse(true, "User registered");
+                });
+    }
+
+    /**
+     * Create a user without sending an invitation. Errors are returned as-is so callers can tell throttling and
+     * existing users apart.
+     */
+    CompletableFuture<AdminCreateUserResponse> createUser(Tenant tenant, String username, String email, String phoneNumber) {
+        List<AttributeType> attrs = new ArrayList<>();
+        if (email != null && !email.isEmpty()) {
+            attrs.add(AttributeType.builder().name("email").value(email).build());
         }
+        if (phoneNumber != null && !phoneNumber.isEmpty()) {
+            attrs.add(AttributeType.builder().name("phone_number").value(phoneNumber).build());
+        }
+
+        AdminCreateUserRequest req = AdminCreateUserRequest.builder()
+                .userPoolId(tenant.userPoolId())
+                .username(username)
+                .userAttributes(attrs)
+                .messageAction(MessageActionType.SUPPRESS) // don't send invite
+                .build();
+        return cognitoOperations.adminCreateUser(tenant.region(), req, null);
+    }
+
+    CompletableFuture<AdminSetUserPasswordResponse> setPermanentPassword(Tenant tenant, String username, String password) {
+        AdminSetUserPasswordRequest req = AdminSetUserPasswordRequest.builder()
+                .userPoolId(tenant.userPoolId())
+                .username(username)
+                .password(password)
+                .permanent(true)
+                .build();
+        return cognitoOperations.adminSetUserPassword(tenant.region(), req, null);
     }
 
     /**
      * Login with username and password via ADMIN_NO_SRP_AUTH.
      */
-    public AuthController.LoginResponse loginUser(String username, String password, String platform) {
-        username = normalizeUsername(username);
+    public CompletableFuture<AuthController.LoginResponse> loginUser(Tenant tenant, String rawUsername, String password, String platform) {
+        String username = normalizeUsername(rawUsername);
         if (username == null || username.isEmpty() || password == null || password.isEmpty()) {
-            throw new AuthException("invalid.request", "Username and password are required");
+            throw CREDENTIALS_REQUIRED;
         }
 
-        try {
-            String clientId = selectClientId(platform);
-            String clientSecret = selectClientSecret(platform);
-
-            Map<String, String> authParams = new HashMap<>();
-            authParams.put("USERNAME", username);
-            authParams.put("PASSWORD", password);
-
-            if (clientSecret != null && !clientSecret.isEmpty()) {
-                String secretHash = computeSecretHash(username, clientId, clientSecret);
-                authParams.put("SECRET_HASH", secretHash);
-            }
-
-            AdminInitiateAuthRequest req = AdminInitiateAuthRequest.builder()
-                    .userPoolId(cognitoProperties.getUserPoolId())
-                    .clientId(clientId)
-                    .authFlow(AuthFlowType.ADMIN_NO_SRP_AUTH)
-                    .authParameters(authParams)
-                    .build();
-
-            AdminInitiateAuthResponse resp = cognitoClient.adminInitiateAuth(req);
-
-            if (resp.authenticationResult() != null) {
-                return new AuthController.LoginResponse(true,
-                        resp.authenticationResult().accessToken(),
-                        resp.authenticationResult().idToken(),
-                        resp.authenticationResult().refreshToken(),
-                        null, null, null);
-            }
-
-            // If a challenge is returned
-            String session = resp.session();
-            String challengeName = resp.challengeNameAsString();
-            return new AuthController.LoginResponse(false, null, null, null, "challenge", session, challengeName);
-        } catch (CognitoIdentityProviderException e) {
-            log.warn("Cognito login failed: {}", e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage());
-            return new AuthController.LoginResponse(false, null, null, null, e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage(), null, null);
-        } catch (Exception e) {
-            log.error("Unexpected error in loginUser", e);
-            throw new AuthException("internal.error", "Internal error");
+        CognitoAppClients.AppClient client = tenant.appClients().resolve(platform);
+
+        Map<String, String> authParams = new HashMap<>();
+        authParams.put("USERNAME", username);
+        authParams.put("PASSWORD", password);
+
+        String secretHash = client.secretHash(username);
+        if (secretHash != null) {
+            authParams.put("SECRET_HASH", secretHash);
         }
+
+        AdminInitiateAuthRequest req = AdminInitiateAuthRequest.builder()
+                .userPoolId(tenant.userPoolId())
+                .clientId(client.clientId())
+                .authFlow(AuthFlowType.ADMIN_NO_SRP_AUTH)
+                .authParameters(authParams)
+                .build();
+
+        return cognitoOperations.adminInitiateAuth(tenant.region(), req, platform)
+                .handle((resp, t) -> {
+                    if (t != null) {
+                        Throwable cause = unwrap(t);
+                        if (isThrottled(cause)) {
+                            throw THROTTLED;
+                        }
+                        if (cause instanceof CognitoIdentityProviderException e) {
+                            log.warn("Cognito login failed: {}", errorMessage(e));
+                            return new AuthController.LoginResponse(false, null, null, null, errorMessage(e), null, null);
+                        }
+                        throw failure(cause, "loginUser", INTERNAL);
+                    }
+
+                    if (resp.authenticationResult() != null) {
+                        return new AuthController.LoginResponse(true,
+                                resp.authenticationResult().accessToken(),
+                                resp.authenticationResult().idToken(),
+                                resp.authenticationResult().refreshToken(),
+                                null, null, null);
+                    }
+
+                    // If a challenge is returned
+                    String session = resp.session();
+                    String challengeName = resp.challengeNameAsString();
+                    return new AuthController.LoginResponse(false, null, null, null, "challenge", session, challengeName);
+                });
     }
 
-    private String selectClientSecret(String platform) {
-        if (platform == null) {
-            if (cognitoProperties.getClientSecretWeb() != null && !cognitoProperties.getClientSecretWeb().isEmpty()) {
-                return cognitoProperties.getClientSecretWeb();
-            }
-            if (cognitoProperties.getClientSecretMobile() != null && !cognitoProperties.getClientSecretMobile().isEmpty()) {
-                return cognitoProperties.getClientSecretMobile();
-            }
-            return null;
+    /**
+     * Exchange a refresh token for new access and id tokens via REFRESH_TOKEN_AUTH.
+     * Concurrent refreshes of the same token (several tabs, client retries) share a single Cognito call.
+     */
+    public CompletableFuture<AuthController.RefreshResponse> refreshTokens(Tenant tenant, String rawUsername, String refreshToken, String platform) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            throw REFRESH_TOKEN_REQUIRED;
+        }
+        String username = normalizeUsername(rawUsername);
+        CognitoAppClients.AppClient client = tenant.appClients().resolve(platform);
+        if (client.secretHasher() != null && (username == null || username.isEmpty())) {
+            throw REFRESH_USERNAME_REQUIRED;
         }
 
-        if ("mobile".equalsIgnoreCase(platform)) {
-            String s = cognitoProperties.getClientSecretMobile();
-            if (s != null && !s.isEmpty()) return s;
+        String key = client.clientId() + ':' + refreshToken;
+        CompletableFuture<AuthController.RefreshResponse> inFlight = inFlightRefreshes.get(key);
+        if (inFlight != null) {
+            return inFlight.copy();
         }
-        if ("web".equalsIgnoreCase(platform)) {
-            String s = cognitoProperties.getClientSecretWeb();
-            if (s != null && !s.isEmpty()) return s;
+        CompletableFuture<AuthController.RefreshResponse> promise = new CompletableFuture<>();
+        inFlight = inFlightRefreshes.putIfAbsent(key, promise);
+        if (inFlight != null) {
+            return inFlight.copy();
         }
 
-        return null;
-    }
-
-    private String computeSecretHash(String username, String clientId, String clientSecret) {
         try {
-            String message = username + clientId;
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec signingKey = new SecretKeySpec(clientSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            mac.init(signingKey);
-            byte[] rawHmac = mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(rawHmac);
-        } catch (Exception e) {
-            log.error("Failed to compute SECRET_HASH", e);
-            throw new AuthException("internal.error", "Failed to compute secret hash");
+            refresh(tenant, client, platform, username, refreshToken).whenComplete((resp, t) -> {
+                inFlightRefreshes.remove(key, promise);
+                if (t != null) {
+                    promise.completeExceptionally(unwrap(t));
+                } else {
+                    promise.complete(resp);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlightRefreshes.remove(key, promise);
+            promise.completeExceptionally(e);
         }
+        return promise.copy();
     }
 
-    private String selectClientId(String platform) {
-        if (platform == null) {
-            // prefer explicit web/mobile ids, fall back to legacy clientId
-            if (cognitoProperties.getClientIdWeb() != null && !cognitoProperties.getClientIdWeb().isEmpty()) {
-                return cognitoProperties.getClientIdWeb();
-            }
-            if (cognitoProperties.getClientId() != null && !cognitoProperties.getClientId().isEmpty()) {
-                return cognitoProperties.getClientId();
-            }
-            throw new AuthException("cognito.client.missing", "No Cognito clientId configured");
+    private CompletableFuture<AuthController.RefreshResponse> refresh(Tenant tenant, CognitoAppClients.AppClient client,
+                                                                     String platform, String username, String refreshToken) {
+        Map<String, String> authParams = new HashMap<>();
+        authParams.put("REFRESH_TOKEN", refreshToken);
+
+        String secretHash = username != null ? client.secretHash(username) : null;
+        if (secretHash != null) {
+            authParams.put("SECRET_HASH", secretHash);
         }
 
-        if ("mobile".equalsIgnoreCase(platform)) {
-            String id = cognitoProperties.getClientIdMobile();
-            if (id != null && !id.isEmpty()) return id;
+        AdminInitiateAuthRequest req = AdminInitiateAuthRequest.builder()
+                .userPoolId(tenant.userPoolId())
+                .clientId(client.clientId())
+                .authFlow(AuthFlowType.REFRESH_TOKEN_AUTH)
+                .authParameters(authParams)
+                .build();
+
+        return cognitoOperations.adminInitiateAuth(tenant.region(), req, platform)
+                .handle((resp, t) -> {
+                    if (t != null) {
+                        throw failure(t, "refreshTokens", REFRESH_FAILED);
+                    }
+                    if (resp.authenticationResult() == null) {
+                        return new AuthController.RefreshResponse(false, null, null, null);
+                    }
+                    return new AuthController.RefreshResponse(true,
+                            resp.authenticationResult().accessToken(),
+                            resp.authenticationResult().idToken(),
+                            resp.authenticationResult().refreshToken());
+                });
+    }
+
+    /**
+     * Map a failed Cognito call to the exception surfaced to clients: throttling becomes 429 cognito.throttled,
+     * other Cognito errors the operation's failure, anything unexpected 500 internal.error.
+     */
+    private AuthException failure(Throwable t, String operation, Failure failure) {
+        Throwable cause = unwrap(t);
+        if (cause instanceof AuthException e) {
+            return e;
+        }
+        if (isThrottled(cause)) {
+            return THROTTLED;
+        }
+        if (cause instanceof NotAuthorizedException || cause instanceof CodeMismatchException
+                || cause instanceof ExpiredCodeException || cause instanceof UserNotFoundException) {
+            // Routine for a wrong OTP, and frequent under credential stuffing; counted in auth.errors instead
+            log.debug("Cognito {} rejected: {}", operation, errorMessage((CognitoIdentityProviderException) cause));
+            return failure.unauthorized();
         }
-        if ("web".equalsIgnoreCase(platform)) {
-            String id = cognitoProperties.getClientIdWeb();
-            if (id != null && !id.isEmpty()) return id;
+        if (cause instanceof CognitoIdentityProviderException e) {
+            log.warn("Cognito {} failed: {}", operation, errorMessage(e));
+            return failure.rejected();
         }
+        log.error("Unexpected error in {}", operation, cause);
+        return AuthException.INTERNAL_ERROR;
+    }
+
+    private static boolean isThrottled(Throwable t) {
+        return t instanceof TooManyRequestsException || t instanceof LimitExceededException
+                || t instanceof TooManyFailedAttemptsException;
+    }
 
-        // fallback to clientId property
-        if (cognitoProperties.getClientId() != null && !cognitoProperties.getClientId().isEmpty()) {
-            return cognitoProperties.getClientId();
+    private static Throwable unwrap(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
         }
+        return t;
+    }
 
-        throw new AuthException("cognito.client.missing", "No Cognito clientId configured for platform");
+    private static String errorMessage(CognitoIdentityProviderException e) {
+        return e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage();
     }
 }
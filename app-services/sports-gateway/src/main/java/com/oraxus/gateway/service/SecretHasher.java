@@ -0,0 +1,66 @@
+package com.oraxus.gateway.service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Computes Cognito's SECRET_HASH (Base64 HMAC-SHA256 of username + clientId, keyed by the client secret) for one app
+ * client. The key and an initialised {@link Mac} are built once; each call clones that prototype, which copies the
+ * already computed key schedule instead of repeating the provider lookup and {@code init}. A clone per call is used
+ * rather than a ThreadLocal because with virtual threads every request runs on a fresh thread.
+ */
+public final class SecretHasher {
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final byte[] clientIdBytes;
+    private final Mac prototype;
+    private final boolean cloneable;
+
+    public SecretHasher(String clientId, String clientSecret) {
+        this.key = new SecretKeySpec(clientSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.clientIdBytes = clientId.getBytes(StandardCharsets.UTF_8);
+        this.prototype = newMac();
+        this.cloneable = supportsClone(prototype);
+    }
+
+    public String hash(String username) {
+        Mac mac = acquire();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update(clientIdBytes);
+        return Base64.getEncoder().encodeToString(mac.doFinal());
+    }
+
+    private Mac acquire() {
+        if (cloneable) {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                // checked in the constructor; fall through
+            }
+        }
+        return newMac();
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialise " + ALGORITHM, e);
+        }
+    }
+
+    private static boolean supportsClone(Mac mac) {
+        try {
+            mac.clone();
+            return true;
+        } catch (CloneNotSupportedException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.oraxus.gateway.service;
+
+import com.oraxus.gateway.config.properties.UserServiceProperties;
+import com.oraxus.gateway.metrics.AuthMetrics;
+import com.oraxus.gateway.resilience.DependencyUnavailableException;
+import com.oraxus.gateway.support.BoundedLruCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Makes sure users who log in or register have a record in the user service without putting that call on the
+ * request path. Usernames are queued, duplicates within a window are coalesced, and batches are sent to the
+ * user service's bulk ensure endpoint with retry and backoff. Usernames already ensured are remembered for
+ * {@code ensuredTtl} so repeat logins generate no call at all, yet a user lost by the user service is restored on a
+ * later login.
+ */
+@Component
+public class UserProvisioner {
+    private static final Logger log = LoggerFactory.getLogger(UserProvisioner.class);
+
+    private final UserServiceClient userServiceClient;
+    private final UserServiceProperties.Ensure settings;
+    private final AuthMetrics metrics;
+
+    private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+    // Usernames queued or in flight, used to coalesce duplicates
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // Username to the System.nanoTime() until which it is known to exist
+    private final BoundedLruCache<String, Long> ensured;
+
+    private Disposable flusher;
+
+    public UserProvisioner(UserServiceClient userServiceClient, UserServiceProperties userServiceProperties,
+                           AuthMetrics metrics) {
+        this.userServiceClient = userServiceClient;
+        this.settings = userServiceProperties.getEnsure();
+        this.metrics = metrics;
+        this.ensured = new BoundedLruCache<>(settings.getEnsuredCacheSize());
+    }
+
+    @PostConstruct
+    void start() {
+        flusher = Flux.interval(settings.getWindow())
+                .onBackpressureDrop()
+                .concatMapIterable(tick -> drain())
+                .flatMap(this::send, settings.getMaxConcurrentBatches())
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher != null) {
+            flusher.dispose();
+        }
+        // Best-effort flush of whatever is still queued
+        Flux.fromIterable(drain())
+                .flatMap(this::send, settings.getMaxConcurrentBatches())
+                .then()
+                .block(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Queue a username to be ensured in the user service. Never blocks and never fails.
+     */
+    public void enqueue(String username) {
+        if (username == null) {
+            return;
+        }
+        Long ensuredUntil = ensured.get(username);
+        if (ensuredUntil != null && System.nanoTime() - ensuredUntil < 0) {
+            return;
+        }
+        if (pending.size() >= settings.getMaxPending()) {
+            log.debug("Ensure queue full, dropping {}", username);
+            return;
+        }
+        if (pending.add(username)) {
+            queue.offer(username);
+        }
+    }
+
+    private List<List<String>> drain() {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = null;
+        String username;
+        while ((username = queue.poll()) != null) {
+            if (batch == null) {
+                batch = new ArrayList<>(settings.getBatchSize());
+            }
+            batch.add(username);
+            if (batch.size() == settings.getBatchSize()) {
+                batches.add(batch);
+                batch = null;
+            }
+        }
+        if (batch != null) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private Mono<Void> send(List<String> batch) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return userServiceClient.ensureUsers(batch)
+                    .retryWhen(Retry.backoff(settings.getMaxRetries(), settings.getRetryBackoff())
+                            .filter(e -> !(e instanceof DependencyUnavailableException)))
+                    .doOnSuccess(v -> {
+                        metrics.recordEnsureBatch(null, System.nanoTime() - start);
+                        long until = System.nanoTime() + settings.getEnsuredTtl().toNanos();
+                        batch.forEach(username -> ensured.put(username, until));
+                    })
+                    .doOnError(e -> {
+                        metrics.recordEnsureBatch(e, System.nanoTime() - start);
+                        log.warn("Failed to ensure {} users in user service: {}", batch.size(), e.getMessage());
+                    })
+                    .onErrorComplete()
+                    .doFinally(signal -> batch.forEach(pending::remove));
+        });
+    }
+}
@@ -1,42 +1,68 @@
 package com.oraxus.gateway.service;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
+import com.oraxus.gateway.graphql.GraphQlResponse;
+import com.oraxus.gateway.resilience.DependencyGuard;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.Map;
 
 @Component
 public class UserServiceClient {
-    private static final Logger log = LoggerFactory.getLogger(UserServiceClient.class);
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private static final String ROSTER_TOKEN_HEADER = "X-Roster-Token";
 
-    @Value("${user-service.url}")
-    private String userServiceUrl;
+    private final WebClient webClient;
+    private final DependencyGuard guard;
+    private final DependencyGuard graphqlGuard;
+
+    public UserServiceClient(@Qualifier("userServiceWebClient") WebClient webClient,
+                             @Qualifier("userServiceGuard") DependencyGuard guard,
+                             @Qualifier("userServiceGraphqlGuard") DependencyGuard graphqlGuard) {
+        this.webClient = webClient;
+        this.guard = guard;
+        this.graphqlGuard = graphqlGuard;
+    }
+
+    /**
+     * Ensure minimal user records exist for all given usernames in one call to the user service.
+     * Nothing is sent until the returned Mono is subscribed; errors are left to the caller. Each subscription
+     * passes through the user-service circuit breaker and fails fast while it is open.
+     */
+    public Mono<Void> ensureUsers(Collection<String> usernames) {
+        return guard.execute(webClient.post()
+                .uri("/api/users/ensure")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("usernames", usernames))
+                .retrieve()
+                .toBodilessEntity()
+                .then());
+    }
 
     /**
-     * Ensure a minimal user record exists; best-effort POST to user service.
+     * Forward a GraphQL request body to the user service as is. Whatever status and body come back are returned,
+     * not raised, so GraphQL errors reach the client unchanged. {@code rosterToken}, if not null, is sent as
+     * {@code X-Roster-Token}, which the user service requires for roster mutations.
      */
-    public void ensureUserExists(String username) {
-        try {
-            String url = userServiceUrl + "/api/users/ensure"; // expected endpoint in user service
-            Map<String, String> body = new HashMap<>();
-            body.put("username", username);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, String>> req = new HttpEntity<>(body, headers);
-
-            restTemplate.postForEntity(url, req, String.class);
-        } catch (Exception e) {
-            log.warn("ensureUserExists failed: {}", e.getMessage());
-        }
+    public Mono<GraphQlResponse> graphql(byte[] body, String rosterToken) {
+        return graphqlGuard.execute(webClient.post()
+                .uri("/graphql")
+                .headers(headers -> {
+                    if (rosterToken != null) {
+                        headers.set(ROSTER_TOKEN_HEADER, rosterToken);
+                    }
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_GRAPHQL_RESPONSE, MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(bytes -> new GraphQlResponse(response.statusCode().value(),
+                                response.headers().contentType().orElse(MediaType.APPLICATION_JSON).toString(),
+                                bytes))));
     }
 }
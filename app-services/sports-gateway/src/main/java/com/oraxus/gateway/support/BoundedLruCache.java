@@ -0,0 +1,63 @@
+package com.oraxus.gateway.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Small thread-safe LRU map with a fixed capacity. Intended for hot-path lookups where a lock around a
+ * {@link LinkedHashMap} is cheaper than pulling in a caching library.
+ */
+public class BoundedLruCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    public BoundedLruCache(int maxEntries) {
+        this(maxEntries, null);
+    }
+
+    /**
+     * @param onEvict called, under the cache's lock, for each entry dropped to stay within {@code maxEntries}
+     */
+    public BoundedLruCache(int maxEntries, BiConsumer<K, V> onEvict) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                if (onEvict != null) {
+                    onEvict.accept(eldest.getKey(), eldest.getValue());
+                }
+                return true;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized boolean containsKey(K key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * @return the value previously held for {@code key}, or null; unlike evicted entries it is not passed to onEvict
+     */
+    public synchronized V put(K key, V value) {
+        return entries.put(key, value);
+    }
+
+    public synchronized V remove(K key) {
+        return entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,112 @@
+package com.oraxus.gateway.support;
+
+import com.oraxus.gateway.controller.AuthController;
+import com.oraxus.gateway.exception.AuthException;
+import com.oraxus.gateway.service.CognitoOperations;
+import com.oraxus.gateway.tenant.Tenant;
+import com.oraxus.gateway.tenant.TenantRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Does the one-off work of the first auth request while the context starts, before the web server accepts
+ * traffic: initialising the SECRET_HASH {@code Mac} for every tenant's app clients, building the Cognito
+ * client of every tenant region, and building Jackson's serializers
+ * for the auth DTOs on the shared {@link JsonMapper} and {@link CBORMapper}. During a JDK AOT cache training run
+ * this also puts the classes involved into the cache. AWS credentials are resolved on a background thread
+ * instead: that may mean a round trip to the instance or container metadata endpoint, or waiting for it to time
+ * out, which startup should not wait for.
+ *
+ * <p>Failures are logged and ignored; the request path does the same work again if it has to.
+ */
+@Component
+@ConditionalOnProperty(prefix = "startup.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StartupWarmup implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final List<Class<?>> AUTH_DTOS = List.of(
+            AuthController.StartRequest.class, AuthController.StartResponse.class,
+            AuthController.VerifyRequest.class, AuthController.VerifyResponse.class,
+            AuthController.LoginRequest.class, AuthController.LoginResponse.class,
+            AuthController.RegisterRequest.class, AuthController.RegisterResponse.class,
+            AuthController.RefreshRequest.class, AuthController.RefreshResponse.class);
+
+    private final AwsCredentialsProvider credentialsProvider;
+    private final TenantRegistry tenants;
+    private final CognitoOperations cognitoOperations;
+    private final JsonMapper jsonMapper;
+    private final CBORMapper cborMapper;
+
+    public StartupWarmup(AwsCredentialsProvider credentialsProvider, TenantRegistry tenants,
+                         CognitoOperations cognitoOperations, JsonMapper jsonMapper, CBORMapper cborMapper) {
+        this.credentialsProvider = credentialsProvider;
+        this.tenants = tenants;
+        this.cognitoOperations = cognitoOperations;
+        this.jsonMapper = jsonMapper;
+        this.cborMapper = cborMapper;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        Thread.ofVirtual().name("credentials-warmup").start(this::warmCredentials);
+        warmTenants();
+        warmCodec(jsonMapper);
+        warmCodec(cborMapper);
+        log.info("Startup warm-up took {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void warmCredentials() {
+        long start = System.nanoTime();
+        try {
+            credentialsProvider.resolveCredentials();
+            log.debug("Resolved AWS credentials in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            log.warn("Could not resolve AWS credentials during warm-up: {}", e.getMessage());
+        }
+    }
+
+    private void warmTenants() {
+        Set<String> regions = new HashSet<>();
+        for (Tenant tenant : tenants.tenants()) {
+            // null resolves the default client
+            for (String platform : new String[]{null, "web", "mobile", "other"}) {
+                try {
+                    tenant.appClients().resolve(platform).secretHash("warmup");
+                } catch (AuthException e) {
+                    // No client configured for this platform
+                }
+            }
+            if (regions.add(tenant.region())) {
+                try {
+                    cognitoOperations.prepare(tenant.region());
+                } catch (RuntimeException e) {
+                    log.warn("Could not build the Cognito client for {} during warm-up: {}", tenant.region(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void warmCodec(ObjectMapper mapper) {
+        for (Class<?> type : AUTH_DTOS) {
+            try {
+                Object value = jsonMapper.readValue("{}", type);
+                mapper.readValue(mapper.writeValueAsBytes(value), type);
+            } catch (RuntimeException e) {
+                log.debug("{} warm-up failed for {}", mapper.getClass().getSimpleName(), type.getSimpleName(), e);
+            }
+        }
+    }
+}
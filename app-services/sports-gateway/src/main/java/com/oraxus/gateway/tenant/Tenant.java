@@ -0,0 +1,35 @@
+package com.oraxus.gateway.tenant;
+
+import com.oraxus.gateway.service.CognitoAppClients;
+
+/**
+ * A club or league with its own Cognito user pool and app clients. Tenants in the same region share one SDK client
+ * (see {@code CognitoClients}).
+ */
+public record Tenant(String id, String region, String userPoolId, CognitoAppClients appClients) {
+
+    public static final String DEFAULT_ID = "default";
+
+    // Cognito usernames cannot contain whitespace, so no username can pass for a qualified one
+    private static final char SEPARATOR = ' ';
+
+    public boolean isDefault() {
+        return DEFAULT_ID.equals(id);
+    }
+
+    /**
+     * The username as keyed outside Cognito (rate limits, the user service): unchanged for the default tenant,
+     * prefixed with the tenant id and a space otherwise, since the same username can exist in several pools.
+     * A default-tenant username containing whitespace (which Cognito rejects) is prefixed too, so it cannot share
+     * another tenant's user's key.
+     */
+    public String qualify(String username) {
+        if (username == null || username.isBlank()) {
+            return username;
+        }
+        if (isDefault() && username.chars().noneMatch(Character::isWhitespace)) {
+            return username;
+        }
+        return id + SEPARATOR + username;
+    }
+}
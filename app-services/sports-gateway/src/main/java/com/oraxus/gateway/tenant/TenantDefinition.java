@@ -0,0 +1,29 @@
+package com.oraxus.gateway.tenant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * One entry of the {@code tenants.file} registry. Client ids and secrets follow the same rules as the
+ * {@code cognito.*} properties; {@code region} defaults to {@code cognito.region}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantDefinition {
+    private String id;
+    private String region;
+    private String userPoolId;
+    private String clientId;
+    private String clientIdWeb;
+    private String clientIdMobile;
+    @ToString.Exclude
+    private String clientSecretWeb;
+    @ToString.Exclude
+    private String clientSecretMobile;
+    private List<String> hosts;
+}
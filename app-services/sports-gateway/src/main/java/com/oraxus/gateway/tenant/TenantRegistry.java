@@ -0,0 +1,214 @@
+package com.oraxus.gateway.tenant;
+
+import com.oraxus.gateway.config.properties.CognitoProperties;
+import com.oraxus.gateway.config.properties.TenantProperties;
+import com.oraxus.gateway.service.CognitoAppClients;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The tenants the gateway serves: the default tenant, built from the {@code cognito.*} properties, plus those in
+ * {@code tenants.file}. The file is read at startup (a broken file fails startup) and re-read whenever its
+ * modification time changes; a broken update is logged and the previous tenants stay in place.
+ *
+ * <p>Lookups read an immutable snapshot that a reload swaps in one write. Tenants whose definition did not change
+ * are carried over, so their secret hashers stay initialised. Components that derive state from the tenants (such as
+ * the JWT validator's trusted pools) register with {@link #onReload} to be handed each new set.
+ */
+@Component
+public class TenantRegistry {
+    private static final Logger log = LoggerFactory.getLogger(TenantRegistry.class);
+
+    private record Snapshot(Map<String, Tenant> byId, Map<String, Tenant> byHost,
+                            Map<TenantDefinition, Tenant> byDefinition, FileTime modified) {
+    }
+
+    private final TenantProperties properties;
+    private final CognitoProperties cognitoProperties;
+    private final ObjectReader reader;
+    private final Tenant defaultTenant;
+    private final Path file;
+    private final List<Consumer<Collection<Tenant>>> reloadListeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot;
+    private Disposable reloader;
+
+    public TenantRegistry(TenantProperties properties, CognitoProperties cognitoProperties, JsonMapper jsonMapper) {
+        this.properties = properties;
+        this.cognitoProperties = cognitoProperties;
+        this.reader = jsonMapper.readerFor(new TypeReference<List<TenantDefinition>>() {
+        });
+        this.defaultTenant = new Tenant(Tenant.DEFAULT_ID, cognitoProperties.getRegion(),
+                cognitoProperties.getUserPoolId(), new CognitoAppClients(
+                        cognitoProperties.getClientId(),
+                        cognitoProperties.getClientIdWeb(),
+                        cognitoProperties.getClientIdMobile(),
+                        cognitoProperties.getClientSecretWeb(),
+                        cognitoProperties.getClientSecretMobile()));
+        this.file = StringUtils.hasText(properties.getFile()) ? Path.of(properties.getFile()) : null;
+        Snapshot initial = new Snapshot(Map.of(Tenant.DEFAULT_ID, defaultTenant), Map.of(), Map.of(), null);
+        try {
+            this.snapshot = file != null ? load(initial) : initial;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Could not load tenants from " + file, e);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (file != null && properties.getReloadInterval().isPositive()) {
+            reloader = Flux.interval(properties.getReloadInterval(), Schedulers.boundedElastic())
+                    .subscribe(tick -> reloadIfChanged());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (reloader != null) {
+            reloader.dispose();
+        }
+    }
+
+    public Tenant defaultTenant() {
+        return defaultTenant;
+    }
+
+    /**
+     * The tenant with this id, or null.
+     */
+    public Tenant get(String id) {
+        return snapshot.byId().get(id);
+    }
+
+    /**
+     * The tenant serving this host name, or null.
+     */
+    public Tenant forHost(String host) {
+        Map<String, Tenant> byHost = snapshot.byHost();
+        return byHost.isEmpty() || host == null ? null : byHost.get(host.toLowerCase(Locale.ROOT));
+    }
+
+    public Collection<Tenant> tenants() {
+        return snapshot.byId().values();
+    }
+
+    /**
+     * Call {@code listener} with the tenants after each successful reload.
+     */
+    public void onReload(Consumer<Collection<Tenant>> listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Re-read the file if it changed since the last successful load.
+     *
+     * @return whether a new set of tenants was loaded
+     */
+    public boolean reloadIfChanged() {
+        if (file == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        try {
+            if (Files.getLastModifiedTime(file).equals(current.modified())) {
+                return false;
+            }
+            snapshot = load(current);
+            log.info("Loaded {} tenants from {}", snapshot.byId().size() - 1, file);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not reload tenants from {}, keeping the previous ones: {}", file, e.getMessage());
+            return false;
+        }
+        for (Consumer<Collection<Tenant>> listener : reloadListeners) {
+            try {
+                listener.accept(tenants());
+            } catch (RuntimeException e) {
+                log.error("Tenant reload listener failed", e);
+            }
+        }
+        return true;
+    }
+
+    private Snapshot load(Snapshot previous) throws IOException {
+        // Read the time first: a write racing with the read is then picked up by the next check
+        FileTime modified = Files.getLastModifiedTime(file);
+        List<TenantDefinition> definitions;
+        try {
+            definitions = reader.readValue(Files.readAllBytes(file));
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Invalid tenants file: " + e.getOriginalMessage(), e);
+        }
+
+        Map<String, Tenant> byId = new HashMap<>();
+        byId.put(Tenant.DEFAULT_ID, defaultTenant);
+        Map<String, Tenant> byHost = new HashMap<>();
+        Map<TenantDefinition, Tenant> byDefinition = new HashMap<>();
+        // A token names its pool, not its tenant, so a pool can only belong to one tenant
+        Set<String> pools = new HashSet<>();
+        if (StringUtils.hasText(defaultTenant.userPoolId())) {
+            pools.add(defaultTenant.userPoolId());
+        }
+        for (TenantDefinition definition : definitions) {
+            Tenant tenant = previous.byDefinition().get(definition);
+            if (tenant == null) {
+                tenant = build(definition);
+            }
+            if (byId.putIfAbsent(tenant.id(), tenant) != null) {
+                throw new IllegalArgumentException("Duplicate tenant id " + tenant.id());
+            }
+            if (!pools.add(tenant.userPoolId())) {
+                throw new IllegalArgumentException(
+                        "User pool " + tenant.userPoolId() + " is assigned to more than one tenant");
+            }
+            byDefinition.put(definition, tenant);
+            if (definition.getHosts() != null) {
+                for (String host : definition.getHosts()) {
+                    if (byHost.putIfAbsent(host.toLowerCase(Locale.ROOT), tenant) != null) {
+                        throw new IllegalArgumentException("Host " + host + " is assigned to more than one tenant");
+                    }
+                }
+            }
+        }
+        return new Snapshot(Map.copyOf(byId), Map.copyOf(byHost), byDefinition, modified);
+    }
+
+    private Tenant build(TenantDefinition d) {
+        if (!StringUtils.hasText(d.getId()) || !StringUtils.hasText(d.getUserPoolId())) {
+            throw new IllegalArgumentException("Every tenant needs an id and a userPoolId");
+        }
+        if (StringUtils.containsWhitespace(d.getId())) {
+            throw new IllegalArgumentException("Tenant id " + d.getId() + " contains whitespace");
+        }
+        if (!StringUtils.hasText(d.getClientId()) && !StringUtils.hasText(d.getClientIdWeb())
+                && !StringUtils.hasText(d.getClientIdMobile())) {
+            throw new IllegalArgumentException("Tenant " + d.getId() + " has no client id");
+        }
+        String region = StringUtils.hasText(d.getRegion()) ? d.getRegion() : cognitoProperties.getRegion();
+        return new Tenant(d.getId(), region, d.getUserPoolId(), new CognitoAppClients(d.getClientId(),
+                d.getClientIdWeb(), d.getClientIdMobile(), d.getClientSecretWeb(), d.getClientSecretMobile()));
+    }
+}
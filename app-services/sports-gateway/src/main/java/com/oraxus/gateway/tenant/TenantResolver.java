@@ -0,0 +1,43 @@
+package com.oraxus.gateway.tenant;
+
+import com.oraxus.gateway.config.properties.TenantProperties;
+import com.oraxus.gateway.exception.AuthException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the tenant of a request: the one named by the {@code tenants.header} header, else the one serving the
+ * request's host name, else the default tenant. A header naming no known tenant is rejected rather than falling
+ * back, so a client cannot end up signing in to the wrong pool.
+ */
+@Component
+public class TenantResolver {
+
+    private static final AuthException UNKNOWN_TENANT = new AuthException("tenant.unknown", "Unknown tenant");
+
+    private final TenantRegistry registry;
+    private final TenantProperties properties;
+
+    public TenantResolver(TenantRegistry registry, TenantProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    public Tenant resolve(HttpServletRequest request) {
+        String id = request.getHeader(properties.getHeader());
+        if (id != null && !id.isEmpty()) {
+            Tenant tenant = registry.get(id);
+            if (tenant == null) {
+                throw UNKNOWN_TENANT;
+            }
+            return tenant;
+        }
+        if (properties.isHostRouting()) {
+            Tenant tenant = registry.forHost(request.getServerName());
+            if (tenant != null) {
+                return tenant;
+            }
+        }
+        return registry.defaultTenant();
+    }
+}
@@ -0,0 +1,141 @@
+package com.oraxus.gateway.bench;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Launches the packaged gateway in a fresh JVM several times and measures time to first request: from process
+ * start until {@code /actuator/health} answers 200. The median must stay within {@code startup.budgetMs} when that
+ * is set (CI sets a budget per build mode), or else within {@code startup.tolerance} (a fraction) of the baseline
+ * committed for the build mode ({@code startup.mode}) in {@code startup.baselineFile}. With neither the test fails
+ * rather than passing on a number it measured itself; {@code startup.updateBaseline} records the median instead,
+ * to be committed. Run by {@code ./gradlew startupTest}, which passes the jar, the JVM options of the chosen build
+ * mode and these settings as system properties.
+ */
+@Tag("startup")
+class StartupTimeBenchmark {
+
+    private static final int RUNS = 3;
+    private static final Duration GIVE_UP = Duration.ofSeconds(60);
+
+    @Test
+    void timeToFirstRequestHasNotRegressed() throws Exception {
+        String java = System.getProperty("startup.java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String jar = System.getProperty("startup.jar");
+        assertThat(jar).as("startup.jar system property").isNotBlank();
+        List<String> jvmArgs = Arrays.stream(System.getProperty("startup.jvmArgs", "").split("\\s+"))
+                .filter(s -> !s.isBlank())
+                .toList();
+        String mode = System.getProperty("startup.mode", "default");
+        Path baselineFile = Path.of(System.getProperty("startup.baselineFile", "startup-baseline.properties"));
+        double tolerance = Double.parseDouble(System.getProperty("startup.tolerance", "0.25"));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        List<Long> millis = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            millis.add(timeToFirstRequest(client, java, jvmArgs, jar).toMillis());
+        }
+        millis.sort(null);
+        long median = millis.get(RUNS / 2);
+        Properties baselines = new Properties();
+        if (Files.exists(baselineFile)) {
+            try (Reader in = Files.newBufferedReader(baselineFile)) {
+                baselines.load(in);
+            }
+        }
+        String baseline = baselines.getProperty(mode);
+        String budget = System.getProperty("startup.budgetMs", "");
+        System.out.printf("%nTime to first request (%s): %s ms, median %d ms, budget %s ms, baseline %s ms%n",
+                mode, millis, median, budget.isBlank() ? "none" : budget, baseline == null ? "none" : baseline);
+
+        if (Boolean.getBoolean("startup.updateBaseline")) {
+            baselines.setProperty(mode, Long.toString(median));
+            try (Writer out = Files.newBufferedWriter(baselineFile)) {
+                baselines.store(out, "Median time to first request in ms per build mode, written by startupTest");
+            }
+            System.out.printf("Recorded %d ms as the %s baseline in %s%n", median, mode, baselineFile);
+            return;
+        }
+        if (!budget.isBlank()) {
+            assertThat(median).as("median time to first request in ms (budget %s ms)", budget)
+                    .isLessThanOrEqualTo(Long.parseLong(budget.trim()));
+            return;
+        }
+        assertThat(baseline)
+                .as("%s baseline in %s; pass -PstartupBudgetMs or record one with -PupdateStartupBaseline and commit it",
+                        mode, baselineFile)
+                .isNotNull();
+        long limit = Math.round(Long.parseLong(baseline) * (1 + tolerance));
+        assertThat(median).as("median time to first request in ms (baseline %s ms + %.0f%%)", baseline, tolerance * 100)
+                .isLessThanOrEqualTo(limit);
+    }
+
+    private static Duration timeToFirstRequest(HttpClient client, String java, List<String> jvmArgs, String jar)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArgs);
+        // Static credentials, as in LoadTest, so nothing waits on the instance metadata endpoint
+        command.addAll(List.of("-Daws.accessKeyId=startup", "-Daws.secretAccessKey=startup"));
+        command.addAll(List.of("-jar", jar,
+                "--server.port=" + port,
+                "--logging.level.root=WARN",
+                "--cognito.region=us-east-1",
+                "--cognito.userPoolId=us-east-1_startup",
+                "--cognito.clientIdWeb=startup-web"));
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < GIVE_UP.toNanos()) {
+                assertThat(process.isAlive()).as("gateway process exited during startup").isTrue();
+                try {
+                    if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return Duration.ofNanos(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("Gateway did not answer within " + GIVE_UP);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
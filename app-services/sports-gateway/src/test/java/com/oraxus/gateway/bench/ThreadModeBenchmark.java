@@ -0,0 +1,168 @@
+package com.oraxus.gateway.bench;
+
+import com.oraxus.gateway.SportsGatewayApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AuthenticationResultType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares /auth/login throughput and tail latency on the platform-thread Tomcat pool against virtual threads.
+ * Cognito is replaced by a stub that blocks for a fixed time, which is what makes the thread model matter.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class ThreadModeBenchmark {
+
+    private static final Duration COGNITO_LATENCY = Duration.ofMillis(50);
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+    private static final int[] CONCURRENCY = {50, 200, 800};
+
+    private static final String LOGIN_BODY = "{\"username\":\"bench@example.com\",\"password\":\"secret\",\"platform\":\"web\"}";
+
+    @Test
+    void compareThreadModes() throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext ctx = start(virtual)) {
+                int port = ctx.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                for (int concurrency : CONCURRENCY) {
+                    run(port, concurrency, WARMUP);
+                    Result result = run(port, concurrency, MEASUREMENT);
+                    assertThat(result.errors()).isZero();
+                    rows.add(String.format("%-9s %11d %12.0f %9.1f %9.1f",
+                            virtual ? "virtual" : "platform", concurrency, result.throughput(),
+                            result.percentileMillis(0.50), result.percentileMillis(0.99)));
+                }
+            }
+        }
+
+        System.out.printf("%n%-9s %11s %12s %9s %9s%n", "threads", "concurrency", "req/s", "p50 ms", "p99 ms");
+        rows.forEach(System.out::println);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(SportsGatewayApplication.class, StubCognitoConfig.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        // measure the thread model, not the protections in front of it
+                        "ratelimit.enabled=false",
+                        "resilience.cognito.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static Result run(int port, int concurrency, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                .build();
+
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    long[] samples = new long[1024];
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        long elapsed = System.nanoTime() - start;
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        if (n == samples.length) {
+                            samples = Arrays.copyOf(samples, n * 2);
+                        }
+                        samples[n++] = elapsed;
+                    }
+                    return Arrays.copyOf(samples, n);
+                }));
+            }
+
+            List<long[]> perWorker = new ArrayList<>(concurrency);
+            for (Future<long[]> worker : workers) {
+                perWorker.add(worker.get());
+            }
+            long[] all = perWorker.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(all, duration, errors.get());
+        } finally {
+            client.close();
+        }
+    }
+
+    private record Result(long[] sortedNanos, Duration duration, long errors) {
+
+        double throughput() {
+            return sortedNanos.length / (duration.toMillis() / 1000.0);
+        }
+
+        double percentileMillis(double p) {
+            if (sortedNanos.length == 0) return Double.NaN;
+            int idx = (int) Math.min(sortedNanos.length - 1, Math.ceil(p * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(idx, 0)] / 1_000_000.0;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class StubCognitoConfig {
+
+        @Bean
+        @Primary
+        CognitoIdentityProviderClient stubCognitoClient() {
+            return new CognitoIdentityProviderClient() {
+                @Override
+                public AdminInitiateAuthResponse adminInitiateAuth(AdminInitiateAuthRequest request) {
+                    try {
+                        Thread.sleep(COGNITO_LATENCY);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return AdminInitiateAuthResponse.builder()
+                            .authenticationResult(AuthenticationResultType.builder()
+                                    .accessToken("access").idToken("id").refreshToken("refresh")
+                                    .build())
+                            .build();
+                }
+
+                @Override
+                public String serviceName() {
+                    return "cognito-idp";
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.oraxus.gateway.controller;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
+import org.springframework.web.context.WebApplicationContext;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AuthenticationResultType;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "startup.warmup.enabled=false")
+class ContentNegotiationTests {
+
+    private static final String LOGIN = "{\"username\":\"alice\",\"password\":\"secret\"}";
+
+    // Stands in for the user service: answers every request with an empty GraphQL result
+    private static final HttpServer USER_SERVICE = startUserService();
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvcTester mvc;
+
+    @DynamicPropertySource
+    static void userServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("user-service.url", () -> "http://" + USER_SERVICE.getAddress().getHostString() + ":"
+                + USER_SERVICE.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopUserService() {
+        USER_SERVICE.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcTester.from(context);
+    }
+
+    @Test
+    void authResponsesAreJsonByDefault() {
+        MvcTestResult result = mvc.post().uri("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(LOGIN)
+                .exchange();
+
+        assertThat(result).hasStatusOk().hasContentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+        JsonNode body = JsonMapper.builder().build().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(body.get("accessToken").asString()).isEqualTo("access");
+    }
+
+    @Test
+    void clientsAskingForCborGetCborResponsesAndErrors() {
+        MvcTestResult login = mvc.post().uri("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(LOGIN)
+                .exchange();
+        MvcTestResult rejected = mvc.post().uri("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content("{}")
+                .exchange();
+
+        CBORMapper cbor = CBORMapper.builder().build();
+        assertThat(login).hasStatusOk().hasContentTypeCompatibleWith(MediaType.APPLICATION_CBOR);
+        assertThat(cbor.readTree(login.getResponse().getContentAsByteArray()).get("accessToken").asString())
+                .isEqualTo("access");
+        assertThat(rejected).hasStatus(HttpStatus.BAD_REQUEST).hasContentTypeCompatibleWith(MediaType.APPLICATION_CBOR);
+        assertThat(cbor.readTree(rejected.getResponse().getContentAsByteArray()).get("error").asString())
+                .isEqualTo("invalid.request");
+    }
+
+    @Test
+    void graphqlAnswersJsonEvenWhenCborIsAccepted() {
+        assertThat(mvc.post().uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON)
+                .content("{\"query\":\"{ teams { edges { cursor } } }\"}"))
+                .hasStatusOk()
+                .hasContentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .bodyJson()
+                .hasPath("$.data");
+    }
+
+    private static HttpServer startUserService() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", exchange -> {
+                try (exchange) {
+                    exchange.getRequestBody().readAllBytes();
+                    byte[] body = "{\"data\":{}}".getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class StubCognitoConfig {
+
+        @Bean
+        @Primary
+        CognitoIdentityProviderClient stubCognitoClient() {
+            return new CognitoIdentityProviderClient() {
+                @Override
+                public AdminInitiateAuthResponse adminInitiateAuth(AdminInitiateAuthRequest request) {
+                    return AdminInitiateAuthResponse.builder()
+                            .authenticationResult(AuthenticationResultType.builder()
+                                    .accessToken("access").idToken("id").refreshToken("refresh")
+                                    .build())
+                            .build();
+                }
+
+                @Override
+                public String serviceName() {
+                    return "cognito-idp";
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+}
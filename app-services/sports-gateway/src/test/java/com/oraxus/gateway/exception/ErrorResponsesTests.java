@@ -0,0 +1,66 @@
+package com.oraxus.gateway.exception;
+
+import com.oraxus.gateway.metrics.AuthMetrics;
+import com.oraxus.gateway.ratelimit.RateLimitedException;
+import com.oraxus.gateway.resilience.DependencyUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorResponsesTests {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final CBORMapper cborMapper = CBORMapper.builder().build();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ErrorResponses errorResponses = new ErrorResponses(jsonMapper, cborMapper, new AuthMetrics(registry));
+
+    @Test
+    void statusComesFromTheExceptionAndBodiesAreReused() {
+        AuthException unauthorized = new AuthException(HttpStatus.UNAUTHORIZED, "token.invalid", "Invalid token");
+
+        ResponseEntity<byte[]> first = errorResponses.toResponse(unauthorized, null);
+        ResponseEntity<byte[]> second = errorResponses.toResponse(
+                new AuthException(HttpStatus.UNAUTHORIZED, "token.invalid", "Invalid token"), MediaType.ALL_VALUE);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(first.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        JsonNode body = jsonMapper.readTree(first.getBody());
+        assertThat(body.get("error").asString()).isEqualTo("token.invalid");
+        assertThat(body.get("message").asString()).isEqualTo("Invalid token");
+        assertThat(second.getBody()).isSameAs(first.getBody());
+        assertThat(registry.get(AuthMetrics.ERROR_COUNTER).tags("code", "token.invalid", "status", "401")
+                .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void throttlingAndUnavailableDependenciesAreNotBadRequests() {
+        ResponseEntity<byte[]> limited = errorResponses.toResponse(RateLimitedException.retryAfter(7), null);
+        ResponseEntity<byte[]> unavailable = errorResponses.toResponse(
+                new DependencyUnavailableException("cognito.timeout", "cognito did not respond in time"), null);
+
+        assertThat(limited.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("7");
+        assertThat(RateLimitedException.retryAfter(7)).isSameAs(RateLimitedException.retryAfter(7));
+        assertThat(unavailable.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(new AuthException("invalid.request", "Bad").getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(AuthException.INTERNAL_ERROR.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void clientsAskingForCborGetCbor() {
+        ResponseEntity<byte[]> response = errorResponses.toResponse(AuthException.INTERNAL_ERROR,
+                MediaType.APPLICATION_CBOR_VALUE);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(cborMapper.readTree(response.getBody()).get("error").asString()).isEqualTo("internal.error");
+    }
+}
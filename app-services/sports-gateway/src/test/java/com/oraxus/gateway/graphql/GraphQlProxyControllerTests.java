@@ -0,0 +1,100 @@
+package com.oraxus.gateway.graphql;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.oraxus.gateway.config.properties.GraphQlCacheProperties;
+import com.oraxus.gateway.config.properties.UserServiceProperties;
+import com.oraxus.gateway.exception.AuthException;
+import com.oraxus.gateway.security.VerifiedToken;
+import com.oraxus.gateway.service.UserServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GraphQlProxyControllerTests {
+
+    private static final byte[] MUTATION = "{\"query\":\"mutation { deleteTeam(id: \\\"team1\\\") }\"}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] QUERY = "{\"query\":\"{ teamById(id: \\\"team1\\\") { id } }\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    // The X-Roster-Token each forwarded request carried, "none" for none
+    private final List<String> forwarded = Collections.synchronizedList(new ArrayList<>());
+    private GraphQlCacheProperties properties;
+    private GraphQlProxyController controller;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GraphQlCacheProperties();
+        UserServiceProperties userServiceProperties = new UserServiceProperties();
+        userServiceProperties.setRosterToken("roster-secret");
+        UserServiceClient userService = new UserServiceClient(null, null, null) {
+            @Override
+            public Mono<GraphQlResponse> graphql(byte[] body, String rosterToken) {
+                forwarded.add(rosterToken != null ? rosterToken : "none");
+                return Mono.just(new GraphQlResponse(200, "application/json",
+                        "{\"data\":{}}".getBytes(StandardCharsets.UTF_8)));
+            }
+        };
+        controller = new GraphQlProxyController(userService,
+                new GraphQlResponseCache(properties, new SimpleMeterRegistry()), properties, userServiceProperties,
+                JsonMapper.builder().build());
+    }
+
+    @Test
+    void mutationsNeedAVerifiedTokenInTheMutationGroup() {
+        assertStatus(() -> controller.graphql(MUTATION, new MockHttpServletRequest()), HttpStatus.UNAUTHORIZED);
+        assertStatus(() -> controller.graphql(MUTATION, request("coach")), HttpStatus.FORBIDDEN);
+        assertThat(forwarded).isEmpty();
+
+        assertThat(controller.graphql(MUTATION, request("admin")).join().getStatusCode().value()).isEqualTo(200);
+        assertThat(forwarded).containsExactly("roster-secret");
+    }
+
+    @Test
+    void queriesAndUnreadableRequestsAreForwardedWithoutTheRosterToken() {
+        controller.graphql(QUERY, new MockHttpServletRequest()).join();
+        properties.setEnabled(false);
+        controller.graphql(QUERY, new MockHttpServletRequest()).join();
+        controller.graphql("{\"extensions\":{\"persistedQuery\":{\"sha256Hash\":\"abc\"}}}"
+                .getBytes(StandardCharsets.UTF_8), new MockHttpServletRequest()).join();
+        controller.graphql("not json".getBytes(StandardCharsets.UTF_8), new MockHttpServletRequest()).join();
+
+        assertThat(forwarded).containsExactly("none", "none", "none", "none");
+    }
+
+    @Test
+    void invalidationIsDisabledWithoutAToken() {
+        GraphQlProxyController.InvalidationRequest all = new GraphQlProxyController.InvalidationRequest(null, null, true);
+
+        assertStatus(() -> controller.invalidate(all, null), HttpStatus.NOT_FOUND);
+        properties.setInvalidationToken("cache-secret");
+        assertStatus(() -> controller.invalidate(all, null), HttpStatus.FORBIDDEN);
+        assertStatus(() -> controller.invalidate(all, "wrong"), HttpStatus.FORBIDDEN);
+        assertThat(controller.invalidate(all, "cache-secret").getInvalidated()).isZero();
+    }
+
+    private static MockHttpServletRequest request(String group) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        JWTClaimsSet claims = new JWTClaimsSet.Builder().claim("cognito:groups", List.of(group)).build();
+        request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE,
+                new VerifiedToken("sub", "alice", "access", "client", "default", Long.MAX_VALUE, claims));
+        return request;
+    }
+
+    private static void assertStatus(Runnable call, HttpStatus status) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(AuthException.class, e -> assertThat(e.getStatus()).isEqualTo(status));
+    }
+}
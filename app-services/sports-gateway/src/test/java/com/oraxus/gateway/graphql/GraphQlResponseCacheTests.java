@@ -0,0 +1,124 @@
+package com.oraxus.gateway.graphql;
+
+import com.oraxus.gateway.config.properties.GraphQlCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphQlResponseCacheTests {
+
+    @Test
+    void documentsAreNormalizedAndClassified() {
+        GraphQlDocument a = GraphQlDocument.parse("""
+                # the roster page
+                query Team($id: ID) {
+                  t: teamById(id: $id) { id, name }
+                  teams(first: 5) @include(if: true) { edges { node { id } } }
+                }""");
+        GraphQlDocument b = GraphQlDocument.parse("query Team($id: ID) { t: teamById(id: $id) { id name } teams(first: 5) @include(if: true) { edges { node { id } } } }");
+
+        assertThat(a.normalized()).isEqualTo(b.normalized());
+        assertThat(a.readOnly()).isTrue();
+        assertThat(a.rootFields()).containsExactlyInAnyOrder("teamById", "teams");
+        assertThat(GraphQlDocument.parse("{ teamById(id: \"team1\") { id } }").stringLiterals()).containsExactly("team1");
+        assertThat(GraphQlDocument.parse("mutation { deleteTeam(id: \"team1\") }").readOnly()).isFalse();
+        assertThat(GraphQlDocument.parse("{ ...Roster } fragment Roster on Query { teams { edges { cursor } } }").rootFields())
+                .containsExactly(GraphQlDocument.UNKNOWN_ROOT_FIELDS);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoadAndInvalidationDropsTaggedEntries() {
+        GraphQlResponseCache cache = cache(Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<GraphQlResponseCache.Loaded> upstream = new CompletableFuture<>();
+
+        CompletableFuture<GraphQlResponseCache.Lookup> first = cache.get("k", () -> {
+            loads.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<GraphQlResponseCache.Lookup> second = cache.get("k", () -> {
+            loads.incrementAndGet();
+            return upstream;
+        });
+        upstream.complete(loaded("team1", Set.of(GraphQlResponseCache.idTag("team1"), GraphQlResponseCache.fieldTag("teamById"))));
+
+        assertThat(loads).hasValue(1);
+        assertThat(first.join().outcome()).isEqualTo(GraphQlResponseCache.Outcome.MISS);
+        assertThat(second.join().outcome()).isEqualTo(GraphQlResponseCache.Outcome.COALESCED);
+        assertThat(cache.get("k", () -> {
+            throw new AssertionError("should be cached");
+        }).join().outcome()).isEqualTo(GraphQlResponseCache.Outcome.HIT);
+
+        assertThat(cache.invalidate(List.of(GraphQlResponseCache.idTag("team2")))).isZero();
+        assertThat(cache.invalidate(List.of(GraphQlResponseCache.idTag("team1")))).isEqualTo(1);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void responsesFetchedAcrossAnInvalidationAreNotStored() {
+        GraphQlResponseCache cache = cache(Duration.ofMinutes(1));
+        CompletableFuture<GraphQlResponseCache.Loaded> upstream = new CompletableFuture<>();
+
+        CompletableFuture<GraphQlResponseCache.Lookup> lookup = cache.get("k", () -> upstream);
+        cache.invalidate(List.of(GraphQlResponseCache.idTag("team1")));
+        upstream.complete(loaded("team1", Set.of(GraphQlResponseCache.idTag("team1"))));
+
+        assertThat(lookup.join().outcome()).isEqualTo(GraphQlResponseCache.Outcome.MISS);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void expiredEntriesAreServedStaleWhileOneRequestRefreshes() {
+        GraphQlResponseCache cache = cache(Duration.ZERO);
+        cache.get("k", () -> CompletableFuture.completedFuture(loaded("old", Set.of()))).join();
+
+        CompletableFuture<GraphQlResponseCache.Loaded> refresh = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            GraphQlResponseCache.Lookup lookup = cache.get("k", () -> {
+                loads.incrementAndGet();
+                return refresh;
+            }).join();
+            assertThat(lookup.outcome()).isEqualTo(GraphQlResponseCache.Outcome.STALE);
+            assertThat(new String(lookup.response().body(), StandardCharsets.UTF_8)).isEqualTo("old");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void aRefreshedEntryDropsTheTagsItNoLongerHas() {
+        GraphQlResponseCache cache = cache(Duration.ZERO);
+        String team1 = GraphQlResponseCache.idTag("team1");
+        String team2 = GraphQlResponseCache.idTag("team2");
+        cache.get("k", () -> CompletableFuture.completedFuture(loaded("old", Set.of(team1)))).join();
+
+        // Served stale while the refresh, now mentioning team2 instead, replaces the entry
+        cache.get("k", () -> CompletableFuture.completedFuture(loaded("new", Set.of(team2)))).join();
+
+        assertThat(cache.tagCount()).isEqualTo(1);
+        assertThat(cache.invalidate(List.of(team1))).isZero();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.invalidate(List.of(team2))).isEqualTo(1);
+        assertThat(cache.tagCount()).isZero();
+    }
+
+    private static GraphQlResponseCache cache(Duration ttl) {
+        GraphQlCacheProperties properties = new GraphQlCacheProperties();
+        properties.setTtl(ttl);
+        properties.setStaleWhileRevalidate(Duration.ofMinutes(1));
+        return new GraphQlResponseCache(properties, new SimpleMeterRegistry());
+    }
+
+    private static GraphQlResponseCache.Loaded loaded(String body, Set<String> tags) {
+        return new GraphQlResponseCache.Loaded(
+                new GraphQlResponse(200, "application/json", body.getBytes(StandardCharsets.UTF_8)), tags);
+    }
+}
@@ -0,0 +1,50 @@
+package com.oraxus.gateway.metrics;
+
+import com.oraxus.gateway.controller.AuthController;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AuthMetrics metrics = new AuthMetrics(registry);
+
+    @Test
+    void cognitoCallsAreTaggedWithPlatformAndOutcome() {
+        metrics.timeCognito("adminInitiateAuth", "WEB", () -> CompletableFuture.completedFuture("tokens"), r -> "success");
+        metrics.timeCognito("adminInitiateAuth", null, () -> CompletableFuture.failedFuture(
+                NotAuthorizedException.builder()
+                        .awsErrorDetails(AwsErrorDetails.builder().errorCode("NotAuthorizedException").build())
+                        .build()), r -> "success");
+
+        Timer web = registry.find(AuthMetrics.COGNITO_TIMER)
+                .tags("operation", "adminInitiateAuth", "platform", "web", "outcome", "success").timer();
+        Timer rejected = registry.find(AuthMetrics.COGNITO_TIMER)
+                .tags("platform", "default", "outcome", "NotAuthorizedException").timer();
+        assertThat(web).isNotNull();
+        assertThat(web.count()).isEqualTo(1);
+        assertThat(rejected).isNotNull();
+        assertThat(rejected.count()).isEqualTo(1);
+    }
+
+    @Test
+    void endpointOutcomeDistinguishesChallengesFromRejections() {
+        metrics.recordEndpoint("login", "mobile",
+                new AuthController.LoginResponse(false, null, null, null, "challenge", "s", "SMS_MFA"),
+                null, 1_000_000);
+        metrics.recordEndpoint("register", null,
+                new AuthController.RegisterResponse(false, "exists"), null, 1_000_000);
+
+        assertThat(registry.find(AuthMetrics.ENDPOINT_TIMER).tags("endpoint", "login", "outcome", "challenge").timer())
+                .isNotNull();
+        assertThat(registry.find(AuthMetrics.ENDPOINT_TIMER).tags("endpoint", "register", "outcome", "rejected").timer())
+                .isNotNull();
+    }
+}
@@ -0,0 +1,155 @@
+package com.oraxus.gateway.ratelimit;
+
+import com.oraxus.gateway.config.properties.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthRateLimiterTests {
+
+    @Test
+    void bucketAllowsBurstThenRejectsWithRetryAfter() {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(100);
+        BucketSpec spec = new BucketSpec(3, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(backend.tryAcquire("k", spec)).isZero();
+        }
+        assertThat(backend.tryAcquire("k", spec))
+                .isPositive()
+                .isLessThanOrEqualTo(Duration.ofSeconds(20).toNanos());
+        assertThat(backend.tryAcquire("other", spec)).isZero();
+    }
+
+    @Test
+    void fullTableEvictsTheLeastUsedBucketAndStillLimitsNewKeys() {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(2);
+        BucketSpec spec = new BucketSpec(3, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            backend.tryAcquire("busy", spec);
+        }
+        backend.tryAcquire("quiet", spec);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(backend.tryAcquire("new", spec)).isZero();
+        }
+        assertThat(backend.tryAcquire("new", spec)).isPositive();
+        assertThat(backend.tryAcquire("busy", spec)).isPositive();
+        assertThat(backend.size()).isEqualTo(2);
+    }
+
+    @Test
+    void instancesSharingABackendShareTheLimit() {
+        SharedStoreBackend store = new SharedStoreBackend();
+        AuthRateLimiter nodeA = limiter(store);
+        AuthRateLimiter nodeB = limiter(store);
+
+        nodeA.acquire("start", "Alice@example.com", null, request("10.0.0.1")).release();
+        nodeB.acquire("start", "alice@example.com", null, request("10.0.0.2")).release();
+
+        assertThatThrownBy(() -> nodeA.acquire("start", "alice@example.com", null, request("10.0.0.3")))
+                .isInstanceOfSatisfying(RateLimitedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+        nodeB.acquire("start", "bob@example.com", null, request("10.0.0.3")).release();
+    }
+
+    @Test
+    void concurrencySlotIsHeldUntilReleased() {
+        AuthRateLimiter limiter = limiter(new SharedStoreBackend());
+
+        AuthRateLimiter.Permit first = limiter.acquire("login", "carol", null, request("10.0.0.1"));
+        assertThatThrownBy(() -> limiter.acquire("login", "carol", null, request("10.0.0.1")))
+                .isInstanceOf(RateLimitedException.class);
+
+        first.release();
+        first.release();
+        assertThat(limiter.inFlight("carol")).isZero();
+        limiter.acquire("login", "carol", null, request("10.0.0.1")).release();
+    }
+
+    @Test
+    void concurrentRefreshesAreNotCappedPerUser() throws Exception {
+        AuthRateLimiter limiter = limiter(new SharedStoreBackend());
+        AuthRateLimiter.Permit login = limiter.acquire("login", "dave", null, request("10.0.0.1"));
+
+        // Several tabs refreshing at once, each holding its permit while the others acquire
+        int tabs = 8;
+        CountDownLatch acquired = new CountDownLatch(tabs);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> refreshes = new ArrayList<>();
+            for (int i = 0; i < tabs; i++) {
+                refreshes.add(executor.submit(() -> {
+                    AuthRateLimiter.Permit permit = limiter.acquire("refresh", "dave", "web", request("10.0.0.1"));
+                    acquired.countDown();
+                    acquired.await();
+                    permit.release();
+                    return null;
+                }));
+            }
+            for (Future<?> refresh : refreshes) {
+                refresh.get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(limiter.inFlight("dave")).isEqualTo(1);
+        assertThatThrownBy(() -> limiter.acquire("login", "dave", null, request("10.0.0.1")))
+                .isInstanceOf(RateLimitedException.class);
+        login.release();
+    }
+
+    private static AuthRateLimiter limiter(RateLimitBackend backend) {
+        RateLimitProperties.Limit perUser = new RateLimitProperties.Limit();
+        perUser.setCapacity(2);
+        perUser.setPeriod(Duration.ofMinutes(10));
+        RateLimitProperties.EndpointLimits limits = new RateLimitProperties.EndpointLimits();
+        limits.setUsername(perUser);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxConcurrentPerUser(1);
+        properties.setEndpoints(Map.of("start", limits));
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("rateLimitBackend", backend);
+        return new AuthRateLimiter(properties, beans.getBeanProvider(RateLimitBackend.class));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/start");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    /**
+     * Stands in for a shared store such as Redis: one map of theoretical arrival times, updated atomically per key.
+     */
+    static class SharedStoreBackend implements RateLimitBackend {
+        private final ConcurrentHashMap<String, Long> store = new ConcurrentHashMap<>();
+
+        @Override
+        public long tryAcquire(String key, BucketSpec spec) {
+            long now = System.nanoTime();
+            long[] wait = new long[1];
+            store.compute(key, (k, tat) -> {
+                long base = tat == null ? now : Math.max(tat, now);
+                wait[0] = base - now - spec.burstToleranceNanos();
+                return wait[0] > 0 ? tat : base + spec.emissionIntervalNanos();
+            });
+            return Math.max(0, wait[0]);
+        }
+    }
+}
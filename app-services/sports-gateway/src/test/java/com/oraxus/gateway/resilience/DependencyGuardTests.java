@@ -0,0 +1,80 @@
+package com.oraxus.gateway.resilience;
+
+import com.oraxus.gateway.config.properties.ResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DependencyGuardTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void circuitOpensOnFailuresAndClosesAfterSuccessfulProbes() throws Exception {
+        ResilienceProperties.Guard settings = settings();
+        settings.setOpenDuration(Duration.ofMillis(50));
+        DependencyGuard guard = new DependencyGuard("cognito", settings, t -> true, registry);
+
+        for (int i = 0; i < 4; i++) {
+            guard.execute(() -> CompletableFuture.failedFuture(new IllegalStateException("down")));
+        }
+        assertThat(guard.state()).isEqualTo(DependencyGuard.State.OPEN);
+        assertThatThrownBy(() -> guard.execute(() -> CompletableFuture.completedFuture("ok")).join())
+                .isInstanceOf(CompletionException.class)
+                .cause()
+                .isInstanceOfSatisfying(DependencyUnavailableException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("cognito.unavailable"));
+
+        Thread.sleep(60);
+        assertThat(guard.execute(() -> CompletableFuture.completedFuture("ok")).join()).isEqualTo("ok");
+        assertThat(guard.state()).isEqualTo(DependencyGuard.State.HALF_OPEN);
+        guard.execute(() -> CompletableFuture.completedFuture("ok")).join();
+        assertThat(guard.state()).isEqualTo(DependencyGuard.State.CLOSED);
+        assertThat(registry.counter("resilience.circuit.transitions",
+                "dependency", "cognito", "from", "closed", "to", "open").count()).isEqualTo(1);
+    }
+
+    @Test
+    void errorsThatAreNotFailuresKeepTheCircuitClosed() {
+        DependencyGuard guard = new DependencyGuard("cognito", settings(),
+                t -> !(t instanceof IllegalArgumentException), registry);
+
+        for (int i = 0; i < 10; i++) {
+            guard.execute(() -> CompletableFuture.failedFuture(new IllegalArgumentException("wrong password")));
+        }
+        assertThat(guard.state()).isEqualTo(DependencyGuard.State.CLOSED);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimitAndSlowCallsTimeOut() {
+        ResilienceProperties.Guard settings = settings();
+        settings.setMaxConcurrentCalls(1);
+        settings.setInitialTimeout(Duration.ofMillis(50));
+        DependencyGuard guard = new DependencyGuard("user-service", settings, t -> true, registry);
+
+        CompletableFuture<String> slow = guard.execute(CompletableFuture::new);
+        assertThatThrownBy(() -> guard.execute(() -> CompletableFuture.completedFuture("ok")).join())
+                .cause()
+                .isInstanceOf(DependencyUnavailableException.class);
+
+        assertThatThrownBy(slow::join)
+                .cause()
+                .isInstanceOfSatisfying(DependencyUnavailableException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("user-service.timeout"));
+        assertThat(guard.execute(() -> CompletableFuture.completedFuture("ok")).join()).isEqualTo("ok");
+    }
+
+    private static ResilienceProperties.Guard settings() {
+        ResilienceProperties.Guard settings = new ResilienceProperties.Guard();
+        settings.setSlidingWindowSize(4);
+        settings.setMinimumCalls(4);
+        settings.setHalfOpenCalls(2);
+        return settings;
+    }
+}
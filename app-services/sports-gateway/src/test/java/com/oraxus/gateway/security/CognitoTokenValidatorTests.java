@@ -0,0 +1,121 @@
+package com.oraxus.gateway.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.oraxus.gateway.exception.AuthException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CognitoTokenValidatorTests {
+
+    private static final String ISSUER = "https://cognito-idp.us-east-1.amazonaws.com/us-east-1_test";
+
+    private static RSAKey signingKey;
+    private static CognitoTokenValidator validator;
+
+    @BeforeAll
+    static void setUp(@TempDir Path dir) throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("test-key").generate();
+
+        // Same shape as the user pool's /.well-known/jwks.json, loaded the way cognito.jwt.jwksFile is
+        Path jwks = dir.resolve("jwks.json");
+        Files.writeString(jwks, new JWKSet(signingKey.toPublicJWK()).toString());
+
+        validator = new CognitoTokenValidator(new ImmutableJWKSet<>(JWKSet.load(jwks.toFile())),
+                ISSUER, Set.of("web-client"), 100);
+    }
+
+    private static String token(String issuer, String clientId, long expiresInMillis) throws Exception {
+        return token(signingKey, issuer, clientId, expiresInMillis);
+    }
+
+    private static String token(RSAKey key, String issuer, String clientId, long expiresInMillis) throws Exception {
+        long now = System.currentTimeMillis();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject("sub-123")
+                .claim("token_use", "access")
+                .claim("client_id", clientId)
+                .claim("username", "player1")
+                .issueTime(new Date(now))
+                .expirationTime(new Date(now + expiresInMillis))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    @Test
+    void validAccessTokenIsVerifiedAndCached() throws Exception {
+        String token = token(ISSUER, "web-client", 60_000);
+
+        VerifiedToken first = validator.validate(token);
+        assertThat(first.username()).isEqualTo("player1");
+        assertThat(first.tokenUse()).isEqualTo("access");
+        assertThat(validator.validate(token)).isSameAs(first);
+    }
+
+    @Test
+    void tokenFromAnotherIssuerOrClientIsRejected() throws Exception {
+        assertThatThrownBy(() -> validator.validate(token("https://evil.example.com", "web-client", 60_000)))
+                .isInstanceOf(AuthException.class).extracting("code").isEqualTo("token.invalid");
+        assertThatThrownBy(() -> validator.validate(token(ISSUER, "other-client", 60_000)))
+                .isInstanceOf(AuthException.class).extracting("code").isEqualTo("token.invalid");
+    }
+
+    @Test
+    void tokenWithinTheClockSkewIsAcceptedAgainFromTheCache() throws Exception {
+        // Expired 30 s ago: within the 60 s the verifier allows, so the cache must allow it too
+        String token = token(ISSUER, "web-client", -30_000);
+
+        VerifiedToken first = validator.validate(token);
+        assertThat(validator.validate(token)).isSameAs(first);
+    }
+
+    @Test
+    void expiredTokenIsRejected() throws Exception {
+        // Beyond the verifier's default clock skew
+        assertThatThrownBy(() -> validator.validate(token(ISSUER, "web-client", -120_000)))
+                .isInstanceOf(AuthException.class).extracting("code").isEqualTo("token.expired");
+    }
+
+    @Test
+    void eachTenantsTokensAreCheckedAgainstItsOwnPool() throws Exception {
+        String clubIssuer = "https://cognito-idp.eu-west-1.amazonaws.com/eu-west-1_club";
+        RSAKey clubKey = new RSAKeyGenerator(2048).keyID("club-key").generate();
+        CognitoTokenValidator.TrustedPool defaultPool = new CognitoTokenValidator.TrustedPool("default", ISSUER,
+                new ImmutableJWKSet<>(new JWKSet(signingKey.toPublicJWK())), Set.of("web-client"));
+        CognitoTokenValidator.TrustedPool clubPool = new CognitoTokenValidator.TrustedPool("club", clubIssuer,
+                new ImmutableJWKSet<>(new JWKSet(clubKey.toPublicJWK())), Set.of("club-client"));
+        CognitoTokenValidator tenants = new CognitoTokenValidator(List.of(defaultPool, clubPool), 100);
+
+        String clubToken = token(clubKey, clubIssuer, "club-client", 60_000);
+        assertThat(tenants.validate(clubToken).tenant()).isEqualTo("club");
+        assertThat(tenants.validate(token(ISSUER, "web-client", 60_000)).tenant()).isEqualTo("default");
+        // Signed with the default pool's key but claiming the club's issuer
+        assertThatThrownBy(() -> tenants.validate(token(signingKey, clubIssuer, "club-client", 60_000)))
+                .isInstanceOf(AuthException.class).extracting("code").isEqualTo("token.invalid");
+
+        // Once the club is dropped its tokens are refused, even ones verified before
+        tenants.setPools(List.of(defaultPool));
+        assertThatThrownBy(() -> tenants.validate(clubToken))
+                .isInstanceOf(AuthException.class).extracting("code").isEqualTo("token.invalid");
+    }
+}
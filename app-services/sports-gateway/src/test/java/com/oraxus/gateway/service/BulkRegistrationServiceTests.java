@@ -0,0 +1,167 @@
+package com.oraxus.gateway.service;
+
+import com.oraxus.gateway.config.properties.BulkRegistrationProperties;
+import com.oraxus.gateway.config.properties.UserServiceProperties;
+import com.oraxus.gateway.ratelimit.RateLimitBackend;
+import com.oraxus.gateway.resilience.DependencyUnavailableException;
+import com.oraxus.gateway.tenant.Tenant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminSetUserPasswordResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.CognitoIdentityProviderException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkRegistrationServiceTests {
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private final Tenant tenant = new Tenant("club", "eu-west-1", "eu-west-1_club",
+            new CognitoAppClients("club-client", null, null, null, null));
+
+    @Test
+    void eachLineGetsAResultAndThrottledStepsAreRetried() throws Exception {
+        FakeCognito cognito = new FakeCognito();
+        cognito.throttlePasswordOnce.add("bob");
+        BulkRegistrationService service = service(cognito, 10);
+
+        List<JsonNode> lines = run(service, """
+                {"username":"alice","password":"pw-1"}
+                not json
+
+                {"username":"bob","password":"pw-2"}
+                {"username":"taken","password":"pw-3"}
+                {"username":"carol"}
+                """);
+
+        assertThat(lines).hasSize(6);
+        Map<Integer, JsonNode> results = new HashMap<>();
+        lines.subList(0, 5).forEach(r -> results.put(r.get("line").asInt(), r));
+        assertThat(results.get(1).get("success").asBoolean()).isTrue();
+        assertThat(results.get(2).get("error").asString()).isEqualTo("invalid.request");
+        assertThat(results.get(4).get("success").asBoolean()).isTrue();
+        assertThat(results.get(5).get("error").asString()).isEqualTo("UsernameExistsException");
+        assertThat(results.get(6).get("error").asString()).isEqualTo("invalid.request");
+
+        JsonNode summary = lines.get(5);
+        assertThat(summary.get("total").asInt()).isEqualTo(5);
+        assertThat(summary.get("succeeded").asInt()).isEqualTo(2);
+        assertThat(summary.get("truncated").asBoolean()).isFalse();
+        // bob was created once; only the throttled password step was repeated
+        assertThat(cognito.creates.get()).isEqualTo(3);
+        assertThat(cognito.passwords.get()).isEqualTo(3);
+    }
+
+    @Test
+    void createUserIsOnlyRetriedWhenItWasNotSent() throws Exception {
+        FakeCognito cognito = new FakeCognito();
+        cognito.failCreateOnce.put("dave", new DependencyUnavailableException("cognito.timeout", "timed out"));
+        cognito.failCreateOnce.put("erin", new DependencyUnavailableException("cognito.unavailable", "open"));
+        cognito.timeOutPasswordOnce.add("frank");
+        BulkRegistrationService service = service(cognito, 10);
+
+        List<JsonNode> lines = run(service, """
+                {"username":"dave","password":"pw-1"}
+                {"username":"erin","password":"pw-2"}
+                {"username":"frank","password":"pw-3"}
+                """);
+
+        Map<Integer, JsonNode> results = new HashMap<>();
+        lines.subList(0, 3).forEach(r -> results.put(r.get("line").asInt(), r));
+        // dave may exist after the timeout, so his create is not sent again
+        assertThat(results.get(1).get("error").asString()).isEqualTo("cognito.timeout");
+        assertThat(results.get(2).get("success").asBoolean()).isTrue();
+        assertThat(results.get(3).get("success").asBoolean()).isTrue();
+        assertThat(cognito.creates.get()).isEqualTo(4);
+        assertThat(cognito.passwords.get()).isEqualTo(3);
+    }
+
+    @Test
+    void uploadsBeyondTheLimitAreTruncated() throws Exception {
+        BulkRegistrationService service = service(new FakeCognito(), 1);
+
+        List<JsonNode> lines = run(service, """
+                {"username":"alice","password":"pw-1"}
+                {"username":"bob","password":"pw-2"}
+                """);
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(1).get("total").asInt()).isEqualTo(1);
+        assertThat(lines.get(1).get("truncated").asBoolean()).isTrue();
+    }
+
+    private BulkRegistrationService service(FakeCognito cognito, int maxUsers) {
+        BulkRegistrationProperties properties = new BulkRegistrationProperties();
+        properties.setMaxUsers(maxUsers);
+        properties.setUsersPerSecond(1000);
+        properties.setRetryBackoff(Duration.ofMillis(1));
+        UserProvisioner provisioner = new UserProvisioner(null, new UserServiceProperties(), null);
+        return new BulkRegistrationService(cognito, provisioner, properties,
+                new StaticListableBeanFactory().getBeanProvider(RateLimitBackend.class), mapper);
+    }
+
+    private List<JsonNode> run(BulkRegistrationService service, String upload) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.register(tenant, new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8).lines().map(mapper::readTree).toList();
+    }
+
+    private static final class FakeCognito extends CognitoService {
+        final AtomicInteger creates = new AtomicInteger();
+        final AtomicInteger passwords = new AtomicInteger();
+        final Set<String> throttlePasswordOnce = ConcurrentHashMap.newKeySet();
+        final Set<String> timeOutPasswordOnce = ConcurrentHashMap.newKeySet();
+        final Map<String, RuntimeException> failCreateOnce = new ConcurrentHashMap<>();
+
+        FakeCognito() {
+            super(null, null);
+        }
+
+        @Override
+        CompletableFuture<AdminCreateUserResponse> createUser(Tenant tenant, String username, String email, String phoneNumber) {
+            creates.incrementAndGet();
+            RuntimeException failure = failCreateOnce.remove(username);
+            if (failure != null) {
+                return CompletableFuture.failedFuture(failure);
+            }
+            if (username.equals("taken")) {
+                return CompletableFuture.failedFuture(error(400, "UsernameExistsException"));
+            }
+            return CompletableFuture.completedFuture(AdminCreateUserResponse.builder().build());
+        }
+
+        @Override
+        CompletableFuture<AdminSetUserPasswordResponse> setPermanentPassword(Tenant tenant, String username, String password) {
+            passwords.incrementAndGet();
+            if (throttlePasswordOnce.remove(username)) {
+                return CompletableFuture.failedFuture(error(429, "TooManyRequestsException"));
+            }
+            if (timeOutPasswordOnce.remove(username)) {
+                return CompletableFuture.failedFuture(new DependencyUnavailableException("cognito.timeout", "timed out"));
+            }
+            return CompletableFuture.completedFuture(AdminSetUserPasswordResponse.builder().build());
+        }
+
+        private static CognitoIdentityProviderException error(int status, String code) {
+            return (CognitoIdentityProviderException) CognitoIdentityProviderException.builder()
+                    .statusCode(status)
+                    .awsErrorDetails(AwsErrorDetails.builder().errorCode(code).errorMessage(code).build())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.oraxus.gateway.service;
+
+import com.oraxus.gateway.exception.AuthException;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CognitoAppClientsTests {
+
+    @Test
+    void secretHashMatchesCognitoDefinition() throws Exception {
+        SecretHasher hasher = new SecretHasher("client-1", "s3cret");
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("s3cret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String expected = Base64.getEncoder().encodeToString(
+                mac.doFinal("user@example.comclient-1".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(hasher.hash("user@example.com")).isEqualTo(expected);
+        assertThat(hasher.hash("user@example.com")).isEqualTo(expected);
+    }
+
+    @Test
+    void platformsResolveToTheirOwnClientAndFallBackToLegacy() {
+        CognitoAppClients clients = new CognitoAppClients("legacy", "web-id", "", "web-secret", null);
+
+        assertThat(clients.resolve(null).clientId()).isEqualTo("web-id");
+        assertThat(clients.resolve("WEB").secretHasher()).isNotNull();
+        assertThat(clients.resolve("mobile").clientId()).isEqualTo("legacy");
+        assertThat(clients.resolve("mobile").secretHash("u")).isNull();
+        assertThat(clients.resolve("tv").clientId()).isEqualTo("legacy");
+    }
+
+    @Test
+    void missingClientIdIsReportedPerRequest() {
+        CognitoAppClients clients = new CognitoAppClients(null, null, "mobile-id", null, null);
+
+        assertThat(clients.resolve("mobile").clientId()).isEqualTo("mobile-id");
+        assertThatThrownBy(() -> clients.resolve("web"))
+                .isInstanceOf(AuthException.class)
+                .extracting("code").isEqualTo("cognito.client.missing");
+    }
+}
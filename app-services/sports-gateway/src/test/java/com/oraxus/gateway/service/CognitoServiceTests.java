@@ -0,0 +1,197 @@
+package com.oraxus.gateway.service;
+
+import com.oraxus.gateway.config.ResilienceConfig;
+import com.oraxus.gateway.config.properties.CognitoProperties;
+import com.oraxus.gateway.config.properties.ResilienceProperties;
+import com.oraxus.gateway.config.properties.UserServiceProperties;
+import com.oraxus.gateway.controller.AuthController;
+import com.oraxus.gateway.exception.AuthException;
+import com.oraxus.gateway.metrics.AuthMetrics;
+import com.oraxus.gateway.resilience.DependencyGuard;
+import com.oraxus.gateway.tenant.Tenant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminInitiateAuthResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AuthenticationResultType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.CognitoIdentityProviderException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyRequestsException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CognitoServiceTests {
+
+    private static final Tenant TENANT = new Tenant(Tenant.DEFAULT_ID, "us-east-1", "us-east-1_pool",
+            new CognitoAppClients("app-client", null, null, null, null));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+    // What Cognito answers AdminInitiateAuth with, as the async client would; the sync stub waits for it
+    private volatile Supplier<CompletableFuture<AdminInitiateAuthResponse>> answer =
+            () -> CompletableFuture.completedFuture(tokens("access"));
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void loginGoesThroughTheConfiguredClient(boolean async) {
+        CognitoService service = service(async);
+
+        AuthController.LoginResponse response = service.loginUser(TENANT, " alice ", "secret", null).join();
+
+        assertThat(response.isSuccess()).isTrue();
+        assertThat(response.getAccessToken()).isEqualTo("access");
+        assertThat(calls).hasValue(1);
+        assertThat(registry.get("auth.cognito.requests").tag("operation", "adminInitiateAuth").timer().count())
+                .isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void cognitoErrorsAreUnwrappedAndMapped(boolean async) {
+        CognitoService service = service(async);
+
+        answer = () -> CompletableFuture.failedFuture(
+                error(NotAuthorizedException.builder(), 400, "NotAuthorizedException"));
+        assertStatus(service.refreshTokens(TENANT, null, "refresh", null), HttpStatus.UNAUTHORIZED);
+
+        answer = () -> CompletableFuture.failedFuture(
+                error(TooManyRequestsException.builder(), 429, "TooManyRequestsException"));
+        assertStatus(service.loginUser(TENANT, "alice", "secret", null), HttpStatus.TOO_MANY_REQUESTS);
+
+        answer = () -> CompletableFuture.failedFuture(new IllegalStateException("boom"));
+        assertStatus(service.startAuth(TENANT, "alice", null), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    void concurrentRefreshesOfOneTokenShareOneCognitoCall() {
+        CompletableFuture<AdminInitiateAuthResponse> pending = new CompletableFuture<>();
+        answer = () -> pending;
+        CognitoService service = service(true);
+
+        CompletableFuture<AuthController.RefreshResponse> first = service.refreshTokens(TENANT, null, "refresh", null);
+        CompletableFuture<AuthController.RefreshResponse> second = service.refreshTokens(TENANT, null, "refresh", null);
+        service.refreshTokens(TENANT, null, "other", null);
+        assertThat(calls).hasValue(2);
+        assertThat(second).isNotSameAs(first);
+
+        // Each caller holds its own copy, so one giving up leaves the others waiting on the call
+        first.cancel(true);
+        pending.complete(tokens("fresh"));
+        assertThat(first).isCancelled();
+        assertThat(second.join().getAccessToken()).isEqualTo("fresh");
+    }
+
+    @Test
+    void aFailedRefreshIsNotSharedWithLaterRetries() {
+        answer = () -> CompletableFuture.failedFuture(
+                error(NotAuthorizedException.builder(), 400, "NotAuthorizedException"));
+        CognitoService service = service(true);
+
+        assertStatus(service.refreshTokens(TENANT, null, "refresh", null), HttpStatus.UNAUTHORIZED);
+        answer = () -> CompletableFuture.completedFuture(tokens("retried"));
+
+        assertThat(service.refreshTokens(TENANT, null, "refresh", null).join().getAccessToken()).isEqualTo("retried");
+        assertThat(calls).hasValue(2);
+    }
+
+    private CognitoService service(boolean async) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        if (async) {
+            beans.addBean("cognitoAsyncClient", asyncClient());
+        } else {
+            beans.addBean("cognitoClient", syncClient());
+        }
+        CognitoProperties cognitoProperties = new CognitoProperties();
+        cognitoProperties.setRegion(TENANT.region());
+        ResilienceProperties resilienceProperties = new ResilienceProperties();
+        DependencyGuard guard = new DependencyGuard("cognito", resilienceProperties.getCognito(),
+                ResilienceConfig::isCognitoFailure, registry);
+        CognitoOperations operations = new CognitoOperations(
+                beans.getBeanProvider(CognitoIdentityProviderClient.class),
+                beans.getBeanProvider(CognitoIdentityProviderAsyncClient.class),
+                guard, null, cognitoProperties, resilienceProperties, registry, new AuthMetrics(registry));
+        assertThat(operations.isAsync()).isEqualTo(async);
+        return new CognitoService(operations, new UserProvisioner(null, new UserServiceProperties(), null));
+    }
+
+    private CognitoIdentityProviderClient syncClient() {
+        return new CognitoIdentityProviderClient() {
+            @Override
+            public AdminInitiateAuthResponse adminInitiateAuth(AdminInitiateAuthRequest request) {
+                calls.incrementAndGet();
+                try {
+                    return answer.get().join();
+                } catch (CompletionException e) {
+                    // The blocking client throws the service exception itself
+                    throw (RuntimeException) e.getCause();
+                }
+            }
+
+            @Override
+            public String serviceName() {
+                return "cognito-idp";
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private CognitoIdentityProviderAsyncClient asyncClient() {
+        return new CognitoIdentityProviderAsyncClient() {
+            @Override
+            public CompletableFuture<AdminInitiateAuthResponse> adminInitiateAuth(AdminInitiateAuthRequest request) {
+                calls.incrementAndGet();
+                // Like the SDK's async client, fail with the service exception wrapped in a CompletionException
+                return answer.get()
+                        .exceptionallyCompose(e -> CompletableFuture.failedFuture(new CompletionException(e)));
+            }
+
+            @Override
+            public String serviceName() {
+                return "cognito-idp";
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static void assertStatus(CompletableFuture<?> future, HttpStatus status) {
+        assertThatThrownBy(future::join)
+                .isInstanceOf(CompletionException.class)
+                .cause()
+                .isInstanceOfSatisfying(AuthException.class, e -> assertThat(e.getStatus()).isEqualTo(status));
+    }
+
+    private static AdminInitiateAuthResponse tokens(String accessToken) {
+        return AdminInitiateAuthResponse.builder()
+                .authenticationResult(AuthenticationResultType.builder()
+                        .accessToken(accessToken).idToken("id").refreshToken("refresh")
+                        .build())
+                .build();
+    }
+
+    private static CognitoIdentityProviderException error(CognitoIdentityProviderException.Builder builder,
+                                                          int status, String code) {
+        return builder
+                .statusCode(status)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode(code).errorMessage(code).build())
+                .build();
+    }
+}
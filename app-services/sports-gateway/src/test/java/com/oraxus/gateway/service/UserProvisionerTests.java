@@ -0,0 +1,117 @@
+package com.oraxus.gateway.service;
+
+import com.oraxus.gateway.config.properties.UserServiceProperties;
+import com.oraxus.gateway.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserProvisionerTests {
+
+    private final FakeUserService userService = new FakeUserService();
+    private final UserServiceProperties properties = new UserServiceProperties();
+    private UserProvisioner provisioner;
+
+    @BeforeEach
+    void setUp() {
+        properties.getEnsure().setWindow(Duration.ofMillis(10));
+        properties.getEnsure().setRetryBackoff(Duration.ofMillis(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (provisioner != null) {
+            provisioner.stop();
+        }
+    }
+
+    @Test
+    void duplicatesAreCoalescedAndBatchesAreCapped() {
+        properties.getEnsure().setBatchSize(2);
+        // A long window, so everything below lands in one drain
+        properties.getEnsure().setWindow(Duration.ofMillis(200));
+        start();
+
+        for (String username : List.of("alice", "bob", "alice", "carol", "bob")) {
+            provisioner.enqueue(username);
+        }
+
+        await(() -> userService.batches.size() == 2);
+        assertThat(userService.batches).containsExactlyInAnyOrder(List.of("alice", "bob"), List.of("carol"));
+    }
+
+    @Test
+    void failedBatchesAreRetriedAndEnsuredUsersAreRemembered() {
+        userService.failuresLeft.set(2);
+        start();
+
+        provisioner.enqueue("alice");
+        await(() -> userService.batches.size() == 1);
+        assertThat(userService.calls).hasValue(3);
+
+        // alice is known now and not sent again
+        provisioner.enqueue("alice");
+        provisioner.enqueue("bob");
+        await(() -> userService.batches.size() == 2);
+        assertThat(userService.batches).containsExactly(List.of("alice"), List.of("bob"));
+    }
+
+    @Test
+    void ensuredUsersAreEnsuredAgainAfterTheTtl() {
+        properties.getEnsure().setEnsuredTtl(Duration.ZERO);
+        start();
+
+        provisioner.enqueue("alice");
+        await(() -> userService.batches.size() == 1);
+        provisioner.enqueue("alice");
+
+        await(() -> userService.batches.size() == 2);
+    }
+
+    private void start() {
+        provisioner = new UserProvisioner(userService, properties, new AuthMetrics(new SimpleMeterRegistry()));
+        provisioner.start();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("timed out waiting").isNegative();
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class FakeUserService extends UserServiceClient {
+        final Queue<List<String>> batches = new ConcurrentLinkedQueue<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger failuresLeft = new AtomicInteger();
+
+        FakeUserService() {
+            super(null, null, null);
+        }
+
+        @Override
+        public Mono<Void> ensureUsers(Collection<String> usernames) {
+            return Mono.defer(() -> {
+                calls.incrementAndGet();
+                if (failuresLeft.getAndDecrement() > 0) {
+                    return Mono.error(new IllegalStateException("user service unavailable"));
+                }
+                // Recorded last, once the provisioner has handled the success
+                return Mono.<Void>empty().doFinally(signal -> batches.add(List.copyOf(usernames)));
+            });
+        }
+    }
+}
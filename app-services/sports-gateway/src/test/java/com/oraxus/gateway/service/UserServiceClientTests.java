@@ -0,0 +1,124 @@
+package com.oraxus.gateway.service;
+
+import com.oraxus.gateway.config.ResilienceConfig;
+import com.oraxus.gateway.config.UserServiceClientConfig;
+import com.oraxus.gateway.config.properties.ResilienceProperties;
+import com.oraxus.gateway.config.properties.UserServiceProperties;
+import com.oraxus.gateway.graphql.GraphQlResponse;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserServiceClientTests {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpServer server;
+    private ConnectionProvider connectionProvider;
+    private UserServiceClient client;
+
+    // The stub user service answers every request with {} and this status, after this delay
+    private volatile Duration delay = Duration.ZERO;
+    private volatile int status = 200;
+    private final AtomicInteger received = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                exchange.getRequestBody().readAllBytes();
+                received.incrementAndGet();
+                Thread.sleep(delay);
+                byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+
+        UserServiceProperties properties = new UserServiceProperties();
+        properties.setUrl("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+        properties.setReadTimeout(Duration.ofMillis(200));
+        properties.setMaxConnections(1);
+        properties.setPendingAcquireTimeout(Duration.ofMillis(50));
+        UserServiceClientConfig config = new UserServiceClientConfig(properties);
+        connectionProvider = config.userServiceConnectionProvider();
+
+        ResilienceConfig resilience = new ResilienceConfig();
+        ResilienceProperties resilienceProperties = new ResilienceProperties();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        client = new UserServiceClient(config.userServiceWebClient(connectionProvider),
+                resilience.userServiceGuard(resilienceProperties, registry),
+                resilience.userServiceGraphqlGuard(resilienceProperties, registry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void slowUserServiceHitsTheResponseTimeout() {
+        delay = Duration.ofSeconds(2);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.ensureUsers(List.of("alice")).block())
+                .isInstanceOf(WebClientRequestException.class)
+                .hasRootCauseInstanceOf(ReadTimeoutException.class);
+        // Bounded by user-service.readTimeout, not by the stub's delay or the guard's 2s timeout
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void callsWaitingForAPooledConnectionGiveUpAfterTheAcquireTimeout() {
+        delay = Duration.ofMillis(150);
+        client.ensureUsers(List.of("alice")).subscribe(v -> { }, e -> { });
+        // Make the second call only once the first one holds the only connection
+        while (received.get() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> client.ensureUsers(List.of("bob")).block())
+                .isInstanceOf(WebClientRequestException.class)
+                .rootCause().hasMessageContaining("pending");
+    }
+
+    @Test
+    void errorStatusesAreRaisedForEnsureButPassedThroughForGraphql() {
+        status = 503;
+
+        assertThatThrownBy(() -> client.ensureUsers(List.of("alice")).block())
+                .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+        GraphQlResponse response = client.graphql("{\"query\":\"{ teams { edges { cursor } } }\"}"
+                .getBytes(StandardCharsets.UTF_8), null).block();
+        assertThat(response.status()).isEqualTo(503);
+        assertThat(response.contentType()).startsWith("application/json");
+    }
+}
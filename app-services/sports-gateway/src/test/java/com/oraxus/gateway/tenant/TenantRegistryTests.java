@@ -0,0 +1,116 @@
+package com.oraxus.gateway.tenant;
+
+import com.oraxus.gateway.config.properties.CognitoProperties;
+import com.oraxus.gateway.config.properties.TenantProperties;
+import com.oraxus.gateway.exception.AuthException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TenantRegistryTests {
+
+    private static final String CLUBS = """
+            [
+              {"id": "rovers", "userPoolId": "us-east-1_rovers", "clientIdWeb": "rovers-web", "hosts": ["Rovers.example.com"]},
+              {"id": "united", "region": "eu-west-1", "userPoolId": "eu-west-1_united", "clientId": "united-app"}
+            ]
+            """;
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private TenantProperties properties;
+    private TenantRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = dir.resolve("tenants.json");
+        Files.writeString(file, CLUBS);
+        properties = new TenantProperties();
+        properties.setFile(file.toString());
+        properties.setReloadInterval(Duration.ZERO);
+
+        CognitoProperties cognito = new CognitoProperties();
+        cognito.setRegion("us-east-1");
+        cognito.setUserPoolId("us-east-1_default");
+        cognito.setClientIdWeb("default-web");
+        registry = new TenantRegistry(properties, cognito, JsonMapper.builder().build());
+    }
+
+    @Test
+    void tenantsComeFromTheFileNextToTheDefault() {
+        assertThat(registry.tenants()).extracting(Tenant::id).containsExactlyInAnyOrder("default", "rovers", "united");
+        assertThat(registry.defaultTenant().userPoolId()).isEqualTo("us-east-1_default");
+        assertThat(registry.get("rovers").region()).isEqualTo("us-east-1");
+        assertThat(registry.get("united").appClients().resolve("mobile").clientId()).isEqualTo("united-app");
+        assertThat(registry.get("united").qualify("alice")).isEqualTo("united alice");
+        assertThat(registry.defaultTenant().qualify("alice")).isEqualTo("alice");
+        // Valid Cognito usernames, and an invalid one posing as united's alice
+        assertThat(registry.defaultTenant().qualify("united:alice")).isEqualTo("united:alice");
+        assertThat(registry.defaultTenant().qualify("united alice")).isEqualTo("default united alice");
+    }
+
+    @Test
+    void headerWinsOverHostAndUnknownTenantsAreRejected() {
+        TenantResolver resolver = new TenantResolver(registry, properties);
+
+        assertThat(resolver.resolve(request("rovers.example.com", null)).id()).isEqualTo("rovers");
+        assertThat(resolver.resolve(request("rovers.example.com", "united")).id()).isEqualTo("united");
+        assertThat(resolver.resolve(request("localhost", null)).isDefault()).isTrue();
+        assertThatThrownBy(() -> resolver.resolve(request("localhost", "wanderers")))
+                .isInstanceOf(AuthException.class)
+                .hasMessage("Unknown tenant");
+    }
+
+    @Test
+    void reloadKeepsUnchangedTenantsAndSurvivesABrokenFile() throws Exception {
+        Tenant rovers = registry.get("rovers");
+        List<Collection<Tenant>> reloaded = new ArrayList<>();
+        registry.onReload(reloaded::add);
+
+        write(CLUBS.replace("\"id\": \"united\"", "\"id\": \"city\""));
+        assertThat(registry.reloadIfChanged()).isTrue();
+        assertThat(registry.get("rovers")).isSameAs(rovers);
+        assertThat(registry.get("city")).isNotNull();
+        assertThat(registry.get("united")).isNull();
+        assertThat(reloaded).singleElement().satisfies(tenants -> assertThat(tenants).contains(rovers));
+
+        write("[{\"id\": \"default\", \"userPoolId\": \"x\", \"clientId\": \"y\"}]");
+        assertThat(registry.reloadIfChanged()).isFalse();
+        write("[{\"id\": \"city\", \"userPoolId\": \"us-east-1_default\", \"clientId\": \"y\"}]");
+        assertThat(registry.reloadIfChanged()).isFalse();
+        assertThat(registry.get("city")).isNotNull();
+        assertThat(registry.reloadIfChanged()).isFalse();
+        assertThat(reloaded).hasSize(1);
+    }
+
+    private void write(String content) throws Exception {
+        FileTime previous = Files.getLastModifiedTime(file);
+        Files.writeString(file, content);
+        // Coarse file system clocks could otherwise leave the time unchanged
+        Files.setLastModifiedTime(file, FileTime.fromMillis(previous.toMillis() + 1000));
+    }
+
+    private static MockHttpServletRequest request(String host, String tenant) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/start");
+        request.setServerName(host);
+        if (tenant != null) {
+            request.addHeader("X-Tenant-Id", tenant);
+        }
+        return request;
+    }
+}
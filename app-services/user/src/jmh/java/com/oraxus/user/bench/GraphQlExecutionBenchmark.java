@@ -0,0 +1,109 @@
+package com.oraxus.user.bench;
+
+import com.oraxus.user.Member;
+import com.oraxus.user.Team;
+import com.oraxus.user.UserApplication;
+import com.oraxus.user.repository.MemberRepository;
+import com.oraxus.user.repository.TeamRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full GraphQL execution through {@link ExecutionGraphQlService}, without HTTP: document lookup (persisted query
+ * cache), cost check, resolvers and member batching. The application runs without a web server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphQlExecutionBenchmark {
+    private static final int TEAMS = 10_000;
+
+    private static final String TEAM_DETAILS = """
+            query teamDetails($id: ID!) {
+              teamById(id: $id) { id name member { id firstName lastName } }
+            }""";
+
+    private static final String TEAMS_PAGE = """
+            query teamsPage($first: Int) {
+              teams(first: $first) {
+                edges { cursor node { id name member { id firstName lastName } } }
+                pageInfo { hasNextPage endCursor }
+              }
+            }""";
+
+    private ConfigurableApplicationContext context;
+    private ExecutionGraphQlService graphQlService;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "graphql.metrics.field-timing-sample-rate=0")
+                .run();
+        graphQlService = context.getBean(ExecutionGraphQlService.class);
+
+        List<Team> teams = new ArrayList<>(TEAMS);
+        List<Member> members = new ArrayList<>(TEAMS);
+        for (int i = 0; i < TEAMS; i++) {
+            members.add(new Member("member" + i, "first" + i, "last" + i));
+            teams.add(new Team("team" + i, "Team " + i, "member" + (i % (TEAMS / 4))));
+        }
+        context.getBean(MemberRepository.class).saveAll(members);
+        context.getBean(TeamRepository.class).saveAll(teams);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse teamDetails() {
+        next = (next + 1) % TEAMS;
+        return execute(TEAM_DETAILS, "teamDetails", Map.of("id", "team" + next));
+    }
+
+    /**
+     * Twenty teams whose members resolve through one batched load.
+     */
+    @Benchmark
+    public ExecutionGraphQlResponse teamsPage() {
+        return execute(TEAMS_PAGE, "teamsPage", Map.of("first", 20));
+    }
+
+    private ExecutionGraphQlResponse execute(String document, String operationName, Map<String, Object> variables) {
+        // A request collects execution input configurers, so it cannot be reused across executions
+        DefaultExecutionGraphQlRequest request = new DefaultExecutionGraphQlRequest(
+                document, operationName, variables, Map.of(), "bench", Locale.ROOT);
+        ExecutionGraphQlResponse response = graphQlService.execute(request).block();
+        if (response == null || !response.getErrors().isEmpty()) {
+            throw new IllegalStateException("GraphQL errors: " + (response != null ? response.getErrors() : "no response"));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,125 @@
+package com.oraxus.user.bench;
+
+import com.oraxus.user.Member;
+import com.oraxus.user.Team;
+import com.oraxus.user.config.properties.RepositoryCacheProperties;
+import com.oraxus.user.repository.JdbcMemberStore;
+import com.oraxus.user.repository.JdbcTeamStore;
+import com.oraxus.user.repository.MemberRepository;
+import com.oraxus.user.repository.TeamRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups behind the team and member resolvers at roster sizes well beyond the seed data, through the caches
+ * over an embedded H2 database. With the default cache sizes the 50k roster does not fit in the team cache, so
+ * that run includes database misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryBenchmark {
+    private static final int BATCH = 20;
+
+    @Param({"10000", "50000"})
+    public int size;
+
+    private EmbeddedDatabase database;
+    private TeamRepository teams;
+    private MemberRepository members;
+    private String[] teamIds;
+    private List<List<String>> memberBatches;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Team> teamList = new ArrayList<>(size);
+        List<Member> memberList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            memberList.add(new Member("member" + i, "first" + i, "last" + i));
+            teamList.add(new Team("team" + i, "Team " + i, "member" + i));
+        }
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        JdbcClient jdbcClient = JdbcClient.create(database);
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(database);
+        RepositoryCacheProperties cacheProperties = new RepositoryCacheProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        members = new MemberRepository(new JdbcMemberStore(jdbcClient, jdbcTemplate), cacheProperties, meterRegistry);
+        teams = new TeamRepository(new JdbcTeamStore(jdbcClient, jdbcTemplate), cacheProperties, meterRegistry);
+        members.saveAll(memberList);
+        teams.saveAll(teamList);
+
+        SplittableRandom random = new SplittableRandom(42);
+        teamIds = new String[1024];
+        memberBatches = new ArrayList<>(1024);
+        for (int i = 0; i < teamIds.length; i++) {
+            teamIds[i] = "team" + random.nextInt(size);
+            List<String> batch = new ArrayList<>(BATCH);
+            for (int j = 0; j < BATCH; j++) {
+                batch.add("member" + random.nextInt(size));
+            }
+            memberBatches.add(batch);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    private int nextIndex() {
+        return next = (next + 1) & 1023;
+    }
+
+    @Benchmark
+    public Team teamById() {
+        return teams.findById(teamIds[nextIndex()]);
+    }
+
+    @Benchmark
+    public Member memberById() {
+        return members.findById(memberBatches.get(nextIndex()).getFirst());
+    }
+
+    /**
+     * One DataLoader dispatch for a page of teams.
+     */
+    @Benchmark
+    public Map<String, Member> membersByIds() {
+        return members.findAllById(memberBatches.get(nextIndex()));
+    }
+
+    @Benchmark
+    public List<Team> teamPage() {
+        return teams.findPage(teamIds[nextIndex()], BATCH);
+    }
+}
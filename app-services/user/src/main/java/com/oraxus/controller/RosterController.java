@@ -0,0 +1,77 @@
+package com.oraxus.user;
+
+import com.oraxus.user.event.RosterEventBus;
+import com.oraxus.user.graphql.ClientErrorException;
+import com.oraxus.user.graphql.RosterWriteInterceptor;
+import com.oraxus.user.service.RosterService;
+import graphql.GraphQLContext;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+/**
+ * Roster mutations and the subscriptions that push their results to connected clients. Mutations need the
+ * roster write token; see {@link RosterWriteInterceptor}.
+ */
+@Controller
+public class RosterController {
+
+    private static final ClientErrorException WRITE_ACCESS_REQUIRED =
+            ClientErrorException.forbidden("Roster changes require " + RosterWriteInterceptor.HEADER);
+
+    private final RosterService rosterService;
+    private final RosterEventBus eventBus;
+
+    public RosterController(RosterService rosterService, RosterEventBus eventBus) {
+        this.rosterService = rosterService;
+        this.eventBus = eventBus;
+    }
+
+    @MutationMapping
+    public Team saveTeam(@Argument("input") Team team, GraphQLContext context) {
+        requireWriteAccess(context);
+        return rosterService.saveTeam(team);
+    }
+
+    @MutationMapping
+    public boolean deleteTeam(@Argument String id, GraphQLContext context) {
+        requireWriteAccess(context);
+        return rosterService.deleteTeam(id);
+    }
+
+    @MutationMapping
+    public Member saveMember(@Argument("input") Member member, GraphQLContext context) {
+        requireWriteAccess(context);
+        return rosterService.saveMember(member);
+    }
+
+    @MutationMapping
+    public boolean deleteMember(@Argument String id, GraphQLContext context) {
+        requireWriteAccess(context);
+        return rosterService.deleteMember(id);
+    }
+
+    /**
+     * Changes to one team, or to all teams when {@code id} is omitted.
+     */
+    @SubscriptionMapping
+    public Flux<RosterEvent.TeamEvent> teamChanged(@Argument String id) {
+        return eventBus.events(RosterEvent.TeamEvent.class, event -> id == null || id.equals(event.team().id()));
+    }
+
+    /**
+     * Changes to one member, or to all members when {@code id} is omitted.
+     */
+    @SubscriptionMapping
+    public Flux<RosterEvent.MemberEvent> memberChanged(@Argument String id) {
+        return eventBus.events(RosterEvent.MemberEvent.class, event -> id == null || id.equals(event.member().id()));
+    }
+
+    private static void requireWriteAccess(GraphQLContext context) {
+        if (!Boolean.TRUE.equals(context.get(RosterWriteInterceptor.WRITE_ACCESS))) {
+            throw WRITE_ACCESS_REQUIRED;
+        }
+    }
+}
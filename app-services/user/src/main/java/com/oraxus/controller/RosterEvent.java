@@ -0,0 +1,19 @@
+package com.oraxus.user;
+
+/**
+ * A change to the roster, pushed to subscribers as a delta.
+ */
+public sealed interface RosterEvent {
+
+    enum ChangeType {
+        SAVED, DELETED
+    }
+
+    ChangeType type();
+
+    record TeamEvent(ChangeType type, Team team) implements RosterEvent {
+    }
+
+    record MemberEvent(ChangeType type, Member member) implements RosterEvent {
+    }
+}
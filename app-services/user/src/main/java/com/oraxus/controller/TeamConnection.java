@@ -0,0 +1,50 @@
+package com.oraxus.user;
+
+import com.oraxus.user.graphql.ClientErrorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+public record TeamConnection(List<Edge> edges, PageInfo pageInfo) {
+
+    public record Edge(String cursor, Team node) {
+    }
+
+    public record PageInfo(boolean hasNextPage, String endCursor) {
+    }
+
+    /**
+     * Build a connection from a page fetched with one extra row (see {@code TeamRepository.findPage}).
+     */
+    public static TeamConnection of(List<Team> page, int first) {
+        boolean hasNextPage = page.size() > first;
+        int size = Math.min(page.size(), first);
+        List<Edge> edges = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Team team = page.get(i);
+            edges.add(new Edge(encodeCursor(team.id()), team));
+        }
+        String endCursor = edges.isEmpty() ? null : edges.get(size - 1).cursor();
+        return new TeamConnection(edges, new PageInfo(hasNextPage, endCursor));
+    }
+
+    public static String encodeCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The team id a cursor points at, or null for no cursor.
+     *
+     * @throws ClientErrorException (BAD_REQUEST) if the cursor was not issued by {@link #encodeCursor}
+     */
+    public static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw ClientErrorException.badRequest("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -1,19 +1,70 @@
 package com.oraxus.user;
 
+import com.oraxus.user.config.properties.QueryCostProperties;
+import com.oraxus.user.graphql.ClientErrorException;
+import com.oraxus.user.repository.MemberRepository;
+import com.oraxus.user.repository.TeamRepository;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 public class TeamController {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final TeamRepository teamRepository;
+    private final QueryCostProperties costProperties;
+
+    public TeamController(TeamRepository teamRepository, MemberRepository memberRepository,
+                          BatchLoaderRegistry batchLoaderRegistry, QueryCostProperties costProperties) {
+        this.teamRepository = teamRepository;
+        this.costProperties = costProperties;
+
+        // Keyed by memberId rather than Team so members shared by several teams are fetched once per request
+        batchLoaderRegistry.forTypePair(String.class, Member.class)
+                .registerMappedBatchLoader((memberIds, env) -> Mono.just(memberRepository.findAllById(memberIds)));
+    }
+
     @QueryMapping
     public Team teamById(@Argument String id) {
-        return Team.getById(id);
+        return teamRepository.findById(id);
+    }
+
+    /**
+     * The teams with the given ids. Lists longer than {@code graphql.cost.max-ids} are rejected.
+     */
+    @QueryMapping
+    public List<Team> teamsByIds(@Argument List<String> ids) {
+        if (ids.size() > costProperties.getMaxIds()) {
+            throw ClientErrorException.badRequest("ids must list at most " + costProperties.getMaxIds() + " teams");
+        }
+        return teamRepository.findAllById(ids);
+    }
+
+    /**
+     * A page of teams. {@code first} is capped at {@code graphql.cost.max-page-size}, the cap the cost model assumes;
+     * less than 1 is rejected, since an empty page could not say whether more teams follow.
+     */
+    @QueryMapping
+    public TeamConnection teams(@Argument Integer first, @Argument String after) {
+        if (first != null && first < 1) {
+            throw ClientErrorException.badRequest("first must be at least 1");
+        }
+        int size = Math.min(first != null ? first : DEFAULT_PAGE_SIZE, costProperties.getMaxPageSize());
+        return TeamConnection.of(teamRepository.findPage(TeamConnection.decodeCursor(after), size), size);
     }
 
     @SchemaMapping
-    public Member member(Team team) {
-        return Member.getById(team.memberId());
+    public CompletableFuture<Member> member(Team team, DataLoader<String, Member> memberLoader) {
+        if (team.memberId() == null) return CompletableFuture.completedFuture(null);
+        return memberLoader.load(team.memberId());
     }
-}
\ No newline at end of file
+}
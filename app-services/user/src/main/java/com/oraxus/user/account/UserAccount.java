@@ -0,0 +1,6 @@
+package com.oraxus.user.account;
+
+import java.time.Instant;
+
+public record UserAccount(String username, Instant createdAt) {
+}
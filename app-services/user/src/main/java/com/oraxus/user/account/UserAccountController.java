@@ -0,0 +1,92 @@
+package com.oraxus.user.account;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserAccountController {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final UserAccountRepository userAccountRepository;
+    private final ObjectReader ensureRequestReader;
+
+    public UserAccountController(UserAccountRepository userAccountRepository, JsonMapper jsonMapper) {
+        this.userAccountRepository = userAccountRepository;
+        this.ensureRequestReader = jsonMapper.readerFor(EnsureUsersRequest.class);
+    }
+
+    /**
+     * Idempotently create user records. Accepts a batch in {@code usernames} and, for older callers,
+     * a single {@code username}.
+     */
+    @PostMapping("/ensure")
+    public EnsureUsersResponse ensure(@RequestBody EnsureUsersRequest req) {
+        List<String> usernames = new ArrayList<>();
+        if (req.usernames() != null) usernames.addAll(req.usernames());
+        if (req.username() != null) usernames.add(req.username());
+        if (usernames.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_SIZE + " usernames per request");
+        }
+
+        int created = userAccountRepository.ensureAll(usernames);
+        return new EnsureUsersResponse(usernames.size(), created);
+    }
+
+    /**
+     * Bulk variant for backfills (e.g. every user in a Cognito export): an NDJSON body of ensure requests, read as a
+     * stream and ensured {@value #MAX_BATCH_SIZE} usernames at a time, so the upload size is not limited.
+     */
+    @PostMapping(path = "/ensure", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public EnsureUsersResponse ensureStream(InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<String> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        int requested = 0;
+        int created = 0;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            EnsureUsersRequest req;
+            try {
+                req = ensureRequestReader.readValue(line);
+            } catch (JacksonException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Line " + lineNumber + " is not an ensure request");
+            }
+            if (req.usernames() != null) batch.addAll(req.usernames());
+            if (req.username() != null) batch.add(req.username());
+            if (batch.size() >= MAX_BATCH_SIZE) {
+                requested += batch.size();
+                created += userAccountRepository.ensureAll(batch);
+                batch.clear();
+            }
+        }
+        requested += batch.size();
+        created += userAccountRepository.ensureAll(batch);
+        return new EnsureUsersResponse(requested, created);
+    }
+
+    public record EnsureUsersRequest(String username, List<String> usernames) {
+    }
+
+    public record EnsureUsersResponse(int requested, int created) {
+    }
+}
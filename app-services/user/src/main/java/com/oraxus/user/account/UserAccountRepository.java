@@ -0,0 +1,111 @@
+package com.oraxus.user.account;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Application user records keyed by Cognito username, kept in the {@code user_account} table so that callers
+ * caching which users they have ensured (the gateway) stay right across restarts. That holds as long as the
+ * database outlives the process: the file under {@code user.data-dir} or a server database, not an in-memory one.
+ */
+@Repository
+public class UserAccountRepository {
+    private static final int MAX_USERNAMES_PER_QUERY = 500;
+    private static final String INSERT_IF_ABSENT = """
+            INSERT INTO user_account (username, created_at)
+            SELECT :username, :createdAt FROM (VALUES (0)) AS one(x)
+            WHERE NOT EXISTS (SELECT 1 FROM user_account WHERE username = :username)""";
+    private static final RowMapper<UserAccount> ROW_MAPPER = (rs, rowNum) ->
+            new UserAccount(rs.getString("username"), rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcClient jdbcClient;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public UserAccountRepository(JdbcClient jdbcClient, NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public UserAccount findByUsername(String username) {
+        if (username == null) return null;
+        return jdbcClient.sql("SELECT username, created_at FROM user_account WHERE username = :username")
+                .param("username", username)
+                .query(ROW_MAPPER)
+                .optional()
+                .orElse(null);
+    }
+
+    /**
+     * Create a record for every username that does not have one yet.
+     *
+     * @return the number of records created
+     */
+    public int ensureAll(Collection<String> usernames) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String username : usernames) {
+            if (username != null && !username.isBlank()) distinct.add(username);
+        }
+        List<String> all = List.copyOf(distinct);
+        Timestamp now = Timestamp.from(Instant.now());
+        int created = 0;
+        for (int from = 0; from < all.size(); from += MAX_USERNAMES_PER_QUERY) {
+            List<String> chunk = all.subList(from, Math.min(all.size(), from + MAX_USERNAMES_PER_QUERY));
+            Set<String> existing = new HashSet<>(jdbcClient
+                    .sql("SELECT username FROM user_account WHERE username IN (:usernames)")
+                    .param("usernames", chunk)
+                    .query(String.class)
+                    .list());
+            List<MapSqlParameterSource> inserts = new ArrayList<>();
+            for (String username : chunk) {
+                if (!existing.contains(username)) {
+                    inserts.add(new MapSqlParameterSource("username", username).addValue("createdAt", now));
+                }
+            }
+            created += insert(inserts);
+        }
+        return created;
+    }
+
+    public int count() {
+        return jdbcClient.sql("SELECT COUNT(*) FROM user_account").query(Integer.class).single();
+    }
+
+    private int insert(List<MapSqlParameterSource> rows) {
+        if (rows.isEmpty()) return 0;
+        try {
+            return created(jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, rows.toArray(MapSqlParameterSource[]::new)));
+        } catch (DuplicateKeyException e) {
+            // A concurrent ensure inserted one of these first; go row by row so the others still get in
+            int created = 0;
+            for (MapSqlParameterSource row : rows) {
+                try {
+                    created += jdbcTemplate.update(INSERT_IF_ABSENT, row);
+                } catch (DuplicateKeyException ignored) {
+                    // already there
+                }
+            }
+            return created;
+        }
+    }
+
+    private static int created(int[] counts) {
+        int created = 0;
+        for (int count : counts) {
+            if (count > 0) created += count;
+        }
+        return created;
+    }
+}
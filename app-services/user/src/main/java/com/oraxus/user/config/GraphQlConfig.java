@@ -0,0 +1,44 @@
+package com.oraxus.user.config;
+
+import com.oraxus.user.config.properties.GraphQlMetricsProperties;
+import com.oraxus.user.config.properties.PersistedQueryProperties;
+import com.oraxus.user.graphql.LruPersistedQueryCache;
+import com.oraxus.user.graphql.PersistedQueryDocumentProvider;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.boot.graphql.autoconfigure.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GraphQlConfig {
+
+    private final PersistedQueryProperties persistedQueryProperties;
+
+    public GraphQlConfig(PersistedQueryProperties persistedQueryProperties) {
+        this.persistedQueryProperties = persistedQueryProperties;
+    }
+
+    @Bean
+    public LruPersistedQueryCache persistedQueryCache() {
+        return new LruPersistedQueryCache(persistedQueryProperties.getMaxEntries());
+    }
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedQueryCustomizer(LruPersistedQueryCache persistedQueryCache) {
+        return builder -> {
+            if (persistedQueryProperties.isEnabled()) {
+                builder.configureGraphQl(graphQl ->
+                        graphQl.preparsedDocumentProvider(new PersistedQueryDocumentProvider(persistedQueryCache)));
+            }
+        };
+    }
+
+    /**
+     * Operation names come from clients; stop tagging new ones once there are too many.
+     */
+    @Bean
+    public MeterFilter graphQlOperationNameLimit(GraphQlMetricsProperties metricsProperties) {
+        return MeterFilter.maximumAllowableTags("graphql.operation", "operation",
+                metricsProperties.getMaxOperationNames(), MeterFilter.deny());
+    }
+}
@@ -0,0 +1,38 @@
+package com.oraxus.user.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "graphql.metrics")
+public class GraphQlMetricsProperties {
+    private boolean enabled = true;
+    // Fraction of requests whose resolvers are individually timed; fetch counts are kept for every request
+    private double fieldTimingSampleRate = 0.01;
+    // Distinct operation names tagged on graphql.operation before further names are dropped
+    private int maxOperationNames = 100;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getFieldTimingSampleRate() {
+        return fieldTimingSampleRate;
+    }
+
+    public void setFieldTimingSampleRate(double fieldTimingSampleRate) {
+        this.fieldTimingSampleRate = fieldTimingSampleRate;
+    }
+
+    public int getMaxOperationNames() {
+        return maxOperationNames;
+    }
+
+    public void setMaxOperationNames(int maxOperationNames) {
+        this.maxOperationNames = maxOperationNames;
+    }
+}
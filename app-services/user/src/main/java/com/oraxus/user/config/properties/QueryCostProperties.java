@@ -0,0 +1,106 @@
+package com.oraxus.user.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "graphql.cost")
+public class QueryCostProperties {
+    private boolean enabled = true;
+    private int maxDepth = 10;
+    private long maxCost = 5000;
+    // Sum of the cost of queries executing at once; 0 disables admission control
+    private long maxInFlightCost = 0;
+    private int defaultFieldWeight = 1;
+    private int defaultListSize = 10;
+    // Most items a paged field returns whatever its "first" argument asks for; the cost model multiplies by no more
+    private int maxPageSize = 100;
+    // Most ids a lookup such as Query.teamsByIds accepts; longer lists are rejected rather than costed
+    private int maxIds = 100;
+    // Keyed by schema coordinate, e.g. "Query.teams"
+    private Map<String, Integer> fieldWeights = new HashMap<>();
+    private Map<String, Integer> listSizes = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public long getMaxCost() {
+        return maxCost;
+    }
+
+    public void setMaxCost(long maxCost) {
+        this.maxCost = maxCost;
+    }
+
+    public long getMaxInFlightCost() {
+        return maxInFlightCost;
+    }
+
+    public void setMaxInFlightCost(long maxInFlightCost) {
+        this.maxInFlightCost = maxInFlightCost;
+    }
+
+    public int getDefaultFieldWeight() {
+        return defaultFieldWeight;
+    }
+
+    public void setDefaultFieldWeight(int defaultFieldWeight) {
+        this.defaultFieldWeight = defaultFieldWeight;
+    }
+
+    public int getDefaultListSize() {
+        return defaultListSize;
+    }
+
+    public void setDefaultListSize(int defaultListSize) {
+        this.defaultListSize = defaultListSize;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    public int getMaxIds() {
+        return maxIds;
+    }
+
+    public void setMaxIds(int maxIds) {
+        this.maxIds = maxIds;
+    }
+
+    public Map<String, Integer> getFieldWeights() {
+        return fieldWeights;
+    }
+
+    public void setFieldWeights(Map<String, Integer> fieldWeights) {
+        this.fieldWeights = fieldWeights;
+    }
+
+    public Map<String, Integer> getListSizes() {
+        return listSizes;
+    }
+
+    public void setListSizes(Map<String, Integer> listSizes) {
+        this.listSizes = listSizes;
+    }
+}
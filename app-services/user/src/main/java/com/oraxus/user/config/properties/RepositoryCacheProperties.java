@@ -0,0 +1,58 @@
+package com.oraxus.user.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "repository.cache")
+public class RepositoryCacheProperties {
+    // Entries per by-id cache; unknown ids are cached too so repeated misses do not reach the database
+    private int maxTeams = 10_000;
+    private int maxMembers = 50_000;
+    private Duration ttl = Duration.ofMinutes(10);
+    // Team pages and per-member team lists; dropped on every team write
+    private int maxQueries = 1_000;
+    private Duration queryTtl = Duration.ofSeconds(30);
+
+    public int getMaxTeams() {
+        return maxTeams;
+    }
+
+    public void setMaxTeams(int maxTeams) {
+        this.maxTeams = maxTeams;
+    }
+
+    public int getMaxMembers() {
+        return maxMembers;
+    }
+
+    public void setMaxMembers(int maxMembers) {
+        this.maxMembers = maxMembers;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public int getMaxQueries() {
+        return maxQueries;
+    }
+
+    public void setMaxQueries(int maxQueries) {
+        this.maxQueries = maxQueries;
+    }
+
+    public Duration getQueryTtl() {
+        return queryTtl;
+    }
+
+    public void setQueryTtl(Duration queryTtl) {
+        this.queryTtl = queryTtl;
+    }
+}
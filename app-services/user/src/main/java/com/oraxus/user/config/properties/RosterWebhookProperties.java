@@ -0,0 +1,62 @@
+package com.oraxus.user.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "roster.webhook")
+public class RosterWebhookProperties {
+    // Where roster changes are posted: the /graphql/cache/invalidate of every gateway instance, since each has its
+    // own response cache. Empty disables the webhook.
+    private List<String> urls = new ArrayList<>();
+    // Sent as X-Invalidation-Token
+    private String token;
+    // Changes are collected for this long (or up to maxBatch) and sent in one call
+    private Duration batchWindow = Duration.ofMillis(100);
+    private int maxBatch = 100;
+    private Duration timeout = Duration.ofSeconds(2);
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(List<String> urls) {
+        this.urls = urls;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public Duration getBatchWindow() {
+        return batchWindow;
+    }
+
+    public void setBatchWindow(Duration batchWindow) {
+        this.batchWindow = batchWindow;
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    public void setMaxBatch(int maxBatch) {
+        this.maxBatch = maxBatch;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
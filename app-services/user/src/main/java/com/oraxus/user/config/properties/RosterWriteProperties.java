@@ -0,0 +1,19 @@
+package com.oraxus.user.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "roster.writes")
+public class RosterWriteProperties {
+    // Roster mutations must send this as X-Roster-Token (the gateway does); unset rejects every mutation
+    private String token;
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
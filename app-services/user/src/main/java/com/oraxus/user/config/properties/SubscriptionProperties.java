@@ -0,0 +1,19 @@
+package com.oraxus.user.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "graphql.subscriptions")
+public class SubscriptionProperties {
+    // Events held for one slow subscriber before its oldest ones are dropped
+    private int bufferSize = 256;
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+}
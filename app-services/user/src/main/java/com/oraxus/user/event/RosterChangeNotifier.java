@@ -0,0 +1,103 @@
+package com.oraxus.user.event;
+
+import com.oraxus.user.RosterEvent;
+import com.oraxus.user.config.properties.RosterWebhookProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tells external caches (the GraphQL response cache of each gateway instance) which ids changed, in batches. Team
+ * changes also name the {@code teams} root field, since a new or deleted team changes the pages that list it.
+ * <p>
+ * Each batch is posted to every target in parallel, and the next batch waits until all have answered. Best effort:
+ * a failed call is logged and not retried, so that target's TTL bounds how stale it can get.
+ */
+@Component
+public class RosterChangeNotifier {
+    private static final Logger log = LoggerFactory.getLogger(RosterChangeNotifier.class);
+
+    private final RosterEventBus eventBus;
+    private final RosterWebhookProperties properties;
+    private Disposable subscription;
+    private RestClient restClient;
+
+    public RosterChangeNotifier(RosterEventBus eventBus, RosterWebhookProperties properties) {
+        this.eventBus = eventBus;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() {
+        List<String> urls = properties.getUrls().stream().filter(StringUtils::hasText).toList();
+        if (urls.isEmpty()) {
+            return;
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getTimeout());
+        requestFactory.setReadTimeout(properties.getTimeout());
+        restClient = RestClient.builder().requestFactory(requestFactory).build();
+
+        subscription = eventBus.events(RosterEvent.class, event -> true)
+                .bufferTimeout(properties.getMaxBatch(), properties.getBatchWindow())
+                .map(RosterChangeNotifier::invalidation)
+                .concatMap(body -> Flux.fromIterable(urls)
+                        .flatMap(url -> Mono.fromRunnable(() -> send(url, body))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .onErrorResume(e -> {
+                                    log.warn("Failed to notify {} of roster changes: {}", url, e.getMessage());
+                                    return Mono.empty();
+                                }))
+                        .then())
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private static Map<String, Set<String>> invalidation(List<RosterEvent> batch) {
+        Set<String> ids = new LinkedHashSet<>();
+        Set<String> fields = new LinkedHashSet<>();
+        for (RosterEvent event : batch) {
+            switch (event) {
+                case RosterEvent.TeamEvent e -> {
+                    ids.add(e.team().id());
+                    fields.add("teams");
+                }
+                case RosterEvent.MemberEvent e -> ids.add(e.member().id());
+            }
+        }
+        return Map.of("ids", ids, "fields", fields);
+    }
+
+    private void send(String url, Map<String, Set<String>> body) {
+        RestClient.RequestBodySpec request = restClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (StringUtils.hasText(properties.getToken())) {
+            request.header("X-Invalidation-Token", properties.getToken());
+        }
+        request.body(body)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,58 @@
+package com.oraxus.user.event;
+
+import com.oraxus.user.RosterEvent;
+import com.oraxus.user.config.properties.SubscriptionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.function.Predicate;
+
+/**
+ * In-process fan-out of roster changes to GraphQL subscribers.
+ * <p>
+ * Publishing never blocks: the sink hands each event to every subscriber directly, and each subscriber reads
+ * from its own bounded buffer. A subscriber that cannot keep up loses its oldest buffered events
+ * ({@code roster.events.dropped}) without holding back anyone else.
+ */
+@Component
+public class RosterEventBus {
+
+    private final Sinks.Many<RosterEvent> sink = Sinks.many().multicast().directBestEffort();
+    private final int bufferSize;
+    private final Counter published;
+    private final Counter dropped;
+
+    public RosterEventBus(SubscriptionProperties properties, MeterRegistry meterRegistry) {
+        this.bufferSize = properties.getBufferSize();
+        this.published = Counter.builder("roster.events.published").register(meterRegistry);
+        this.dropped = Counter.builder("roster.events.dropped")
+                .description("Events dropped from slow subscribers' buffers")
+                .register(meterRegistry);
+        Gauge.builder("roster.events.subscribers", sink, Sinks.Many::currentSubscriberCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Emissions into the sink must not overlap, so concurrent writers are serialized here.
+     */
+    public synchronized void publish(RosterEvent event) {
+        published.increment();
+        sink.tryEmitNext(event);
+    }
+
+    /**
+     * Events of the given type that match {@code filter}. Filtering happens before buffering so a subscriber's
+     * buffer only holds events it will receive.
+     */
+    public <T extends RosterEvent> Flux<T> events(Class<T> type, Predicate<? super T> filter) {
+        return sink.asFlux()
+                .ofType(type)
+                .filter(filter)
+                .onBackpressureBuffer(bufferSize, event -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST);
+    }
+}
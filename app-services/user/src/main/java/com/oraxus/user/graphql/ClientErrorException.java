@@ -0,0 +1,29 @@
+package com.oraxus.user.graphql;
+
+import org.springframework.graphql.execution.ErrorType;
+
+/**
+ * A request the client got wrong (a bad argument, a missing credential). Reported as a GraphQL error with
+ * {@link #getErrorType()} as its classification by {@link ClientErrorResolver}, instead of INTERNAL_ERROR.
+ */
+public class ClientErrorException extends RuntimeException {
+
+    private final ErrorType errorType;
+
+    public ClientErrorException(ErrorType errorType, String message) {
+        super(message, null, false, false);
+        this.errorType = errorType;
+    }
+
+    public static ClientErrorException badRequest(String message) {
+        return new ClientErrorException(ErrorType.BAD_REQUEST, message);
+    }
+
+    public static ClientErrorException forbidden(String message) {
+        return new ClientErrorException(ErrorType.FORBIDDEN, message);
+    }
+
+    public ErrorType getErrorType() {
+        return errorType;
+    }
+}
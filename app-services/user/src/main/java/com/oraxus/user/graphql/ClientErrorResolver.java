@@ -0,0 +1,26 @@
+package com.oraxus.user.graphql;
+
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns {@link ClientErrorException}s thrown by resolvers into GraphQL errors carrying their classification.
+ * Other exceptions are left to the default handling, which reports INTERNAL_ERROR without details.
+ */
+@Component
+public class ClientErrorResolver extends DataFetcherExceptionResolverAdapter {
+
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+        if (ex instanceof ClientErrorException e) {
+            return GraphqlErrorBuilder.newError(env)
+                    .errorType(e.getErrorType())
+                    .message(e.getMessage())
+                    .build();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,159 @@
+package com.oraxus.user.graphql;
+
+import com.oraxus.user.config.properties.GraphQlMetricsProperties;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.language.Document;
+import graphql.schema.DataFetcher;
+import graphql.validation.ValidationError;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execution metrics for every GraphQL request:
+ * <ul>
+ *   <li>{@code graphql.operation}: end-to-end time per operation name and outcome</li>
+ *   <li>{@code graphql.phase}: parse, validate and execute time. Parse and validate only run on persisted query
+ *   cache misses.</li>
+ *   <li>{@code graphql.field.fetches}: how often each non-trivial resolver (e.g. {@code Team.member}) ran in one
+ *   request; a count that grows with the page size points at an N+1 pattern</li>
+ *   <li>{@code graphql.field}: resolver latency, recorded for a sampled fraction of requests only since wrapping
+ *   every fetch is not free</li>
+ * </ul>
+ * Trivial property fetchers are left alone.
+ */
+@Component
+public class ExecutionMetricsInstrumentation extends SimplePerformantInstrumentation {
+
+    private final GraphQlMetricsProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ExecutionMetricsInstrumentation(GraphQlMetricsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < properties.getFieldTimingSampleRate();
+        return new RequestState(sampled);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters,
+                                                                  InstrumentationState state) {
+        if (!(state instanceof RequestState request)) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        long start = System.nanoTime();
+        String operation = parameters.getOperation() != null ? parameters.getOperation() : "anonymous";
+        return SimpleInstrumentationContext.whenCompleted((result, t) -> {
+            boolean failed = t != null || (result != null && !result.getErrors().isEmpty());
+            Timer.builder("graphql.operation")
+                    .description("GraphQL request time from parse to result")
+                    .tag("operation", operation)
+                    .tag("outcome", failed ? "error" : "success")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            request.fetchCounts.forEach((field, count) -> DistributionSummary.builder("graphql.field.fetches")
+                    .description("Resolver invocations per request")
+                    .tag("field", field)
+                    .register(meterRegistry)
+                    .record(count.get()));
+        });
+    }
+
+    @Override
+    public InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters,
+                                                       InstrumentationState state) {
+        return phase("parse", state);
+    }
+
+    @Override
+    public InstrumentationContext<List<ValidationError>> beginValidation(InstrumentationValidationParameters parameters,
+                                                                         InstrumentationState state) {
+        return phase("validate", state);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        return phase("execute", state);
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (!(state instanceof RequestState request) || parameters.isTrivialDataFetcher()) {
+            return dataFetcher;
+        }
+        String field = parameters.getExecutionStepInfo().getObjectType().getName() + '.'
+                + parameters.getExecutionStepInfo().getFieldDefinition().getName();
+        AtomicInteger count = request.fetchCounts.computeIfAbsent(field, f -> new AtomicInteger());
+        if (!request.sampled) {
+            return env -> {
+                count.incrementAndGet();
+                return dataFetcher.get(env);
+            };
+        }
+        Timer timer = Timer.builder("graphql.field")
+                .description("Resolver latency, sampled")
+                .tag("field", field)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        return env -> {
+            count.incrementAndGet();
+            long start = System.nanoTime();
+            Object value = dataFetcher.get(env);
+            if (value instanceof CompletionStage<?> stage) {
+                stage.whenComplete((v, t) -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+            } else {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return value;
+        };
+    }
+
+    private <T> InstrumentationContext<T> phase(String phase, InstrumentationState state) {
+        if (!(state instanceof RequestState)) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        long start = System.nanoTime();
+        return SimpleInstrumentationContext.whenCompleted((result, t) -> Timer.builder("graphql.phase")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    static final class RequestState implements InstrumentationState {
+        final boolean sampled;
+        final Map<String, AtomicInteger> fetchCounts = new ConcurrentHashMap<>();
+
+        RequestState(boolean sampled) {
+            this.sampled = sampled;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.oraxus.user.graphql;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotPresent;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded cache of parsed and validated documents keyed by query hash, evicting the least recently used entry.
+ * Entries with validation errors are not kept so a broken query cannot push out working ones.
+ */
+public class LruPersistedQueryCache implements PersistedQueryCache {
+
+    private final Map<Object, PreparsedDocumentEntry> entries;
+
+    public LruPersistedQueryCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, PreparsedDocumentEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object persistedQueryId,
+                                                                                    ExecutionInput executionInput,
+                                                                                    PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotPresent {
+        PreparsedDocumentEntry entry;
+        synchronized (entries) {
+            entry = entries.get(persistedQueryId);
+        }
+        if (entry != null) {
+            return CompletableFuture.completedFuture(entry);
+        }
+
+        // Hash-only request for a query we have not seen (or have evicted): ask the client to resend the text
+        String queryText = executionInput.getQuery();
+        if (queryText == null || queryText.isBlank() || queryText.equals(PersistedQuerySupport.PERSISTED_QUERY_MARKER)) {
+            throw new PersistedQueryNotPresent(persistedQueryId);
+        }
+
+        // Parse outside the lock; a concurrent miss for the same id just parses twice
+        entry = onCacheMiss.apply(queryText);
+        if (!entry.hasErrors()) {
+            synchronized (entries) {
+                entries.put(persistedQueryId, entry);
+            }
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
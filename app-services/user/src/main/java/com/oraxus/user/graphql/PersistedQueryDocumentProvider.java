@@ -0,0 +1,45 @@
+package com.oraxus.user.graphql;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Apollo automatic persisted queries, extended so that plain requests (no {@code persistedQuery} extension)
+ * are also cached under the SHA-256 of their text. A client that sent a query once can then send only its hash.
+ */
+public class PersistedQueryDocumentProvider extends ApolloPersistedQuerySupport {
+
+    public PersistedQueryDocumentProvider(PersistedQueryCache persistedQueryCache) {
+        super(persistedQueryCache);
+    }
+
+    @Override
+    protected Optional<Object> getPersistedQueryId(ExecutionInput executionInput) {
+        Optional<Object> apqId = super.getPersistedQueryId(executionInput);
+        if (apqId.isPresent()) {
+            return apqId;
+        }
+        String query = executionInput.getQuery();
+        if (query == null || query.isBlank() || query.equals(PersistedQuerySupport.PERSISTED_QUERY_MARKER)) {
+            return Optional.empty();
+        }
+        return Optional.of(sha256Hex(query));
+    }
+
+    static String sha256Hex(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
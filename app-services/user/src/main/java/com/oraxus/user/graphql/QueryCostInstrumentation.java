@@ -0,0 +1,175 @@
+package com.oraxus.user.graphql;
+
+import com.oraxus.user.config.properties.QueryCostProperties;
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computes a static cost and depth for each operation before it executes and rejects operations over budget.
+ * <p>
+ * The cost of a field is its weight plus the cost of its selections times the field's list multiplier, taken from
+ * {@code graphql.cost.list-sizes}, else the {@code first} argument (capped at the resolvers' page size) or the
+ * {@code ids} argument, else the default list size for list-typed fields. When {@code max-in-flight-cost} is set,
+ * operations are also admitted only while the summed cost of executing operations stays under that budget.
+ */
+@Component
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+    private static final Logger log = LoggerFactory.getLogger(QueryCostInstrumentation.class);
+
+    private final QueryCostProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong inFlightCost = new AtomicLong();
+    private final Counter rejectedDepth;
+    private final Counter rejectedCost;
+    private final Counter rejectedBusy;
+
+    public QueryCostInstrumentation(QueryCostProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.rejectedDepth = rejectedCounter("depth");
+        this.rejectedCost = rejectedCounter("cost");
+        this.rejectedBusy = rejectedCounter("busy");
+        Gauge.builder("graphql.query.cost.in.flight", inFlightCost, AtomicLong::get)
+                .description("Summed cost of GraphQL operations currently executing")
+                .register(meterRegistry);
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("graphql.query.rejected")
+                .description("GraphQL operations rejected before execution")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        if (!properties.isEnabled()) {
+            return SimpleInstrumentationContext.noOp();
+        }
+
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        ExecutableNormalizedOperation operation = executionContext.getNormalizedQueryTree().get();
+        String operationType = executionContext.getOperationDefinition().getOperation().name().toLowerCase(Locale.ROOT);
+
+        Calculator calculator = new Calculator(executionContext.getGraphQLSchema());
+        long cost = calculator.cost(operation.getTopLevelFields());
+        int depth = calculator.maxDepth;
+
+        DistributionSummary.builder("graphql.query.cost")
+                .description("Static cost of GraphQL operations")
+                .tag("operation", operationType)
+                .register(meterRegistry)
+                .record(cost);
+        DistributionSummary.builder("graphql.query.depth")
+                .description("Selection depth of GraphQL operations")
+                .tag("operation", operationType)
+                .register(meterRegistry)
+                .record(depth);
+
+        if (depth > properties.getMaxDepth()) {
+            rejectedDepth.increment();
+            throw new AbortExecutionException("Query depth " + depth + " exceeds the maximum of " + properties.getMaxDepth());
+        }
+        if (cost > properties.getMaxCost()) {
+            rejectedCost.increment();
+            throw new AbortExecutionException("Query cost " + cost + " exceeds the maximum of " + properties.getMaxCost());
+        }
+        if (properties.getMaxInFlightCost() <= 0) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        if (!admit(cost)) {
+            rejectedBusy.increment();
+            log.debug("Rejected operation with cost {} while {} in flight", cost, inFlightCost.get());
+            throw new AbortExecutionException("Server is busy, retry later");
+        }
+        return SimpleInstrumentationContext.whenCompleted((result, t) -> inFlightCost.addAndGet(-cost));
+    }
+
+    private boolean admit(long cost) {
+        long budget = properties.getMaxInFlightCost();
+        while (true) {
+            long current = inFlightCost.get();
+            if (current + cost > budget) {
+                return false;
+            }
+            if (inFlightCost.compareAndSet(current, current + cost)) {
+                return true;
+            }
+        }
+    }
+
+    private final class Calculator {
+        private final GraphQLSchema schema;
+        private int maxDepth;
+
+        Calculator(GraphQLSchema schema) {
+            this.schema = schema;
+        }
+
+        long cost(List<ExecutableNormalizedField> fields) {
+            long total = 0;
+            for (ExecutableNormalizedField field : fields) {
+                total += cost(field);
+            }
+            return total;
+        }
+
+        private long cost(ExecutableNormalizedField field) {
+            if (field.getName().startsWith("__")) {
+                return 0;
+            }
+            maxDepth = Math.max(maxDepth, field.getLevel());
+
+            String coordinate = field.getObjectTypeNames().iterator().next() + "." + field.getName();
+            long weight = properties.getFieldWeights().getOrDefault(coordinate, properties.getDefaultFieldWeight());
+            List<ExecutableNormalizedField> children = field.getChildren();
+            if (children.isEmpty()) {
+                return weight;
+            }
+            return weight + multiplier(coordinate, field) * cost(children);
+        }
+
+        private long multiplier(String coordinate, ExecutableNormalizedField field) {
+            Integer configured = properties.getListSizes().get(coordinate);
+            if (configured != null) {
+                return configured;
+            }
+            Object first = field.getResolvedArguments().get("first");
+            if (first instanceof Number n) {
+                // Cost what the resolver returns, not what was asked for
+                return Math.clamp(n.longValue(), 0, properties.getMaxPageSize());
+            }
+            Object ids = field.getResolvedArguments().get("ids");
+            if (ids instanceof Collection<?> c) {
+                return c.size();
+            }
+            if (GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(field.getType(schema)))) {
+                return properties.getDefaultListSize();
+            }
+            return 1;
+        }
+    }
+}
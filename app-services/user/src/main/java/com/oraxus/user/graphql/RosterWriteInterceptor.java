@@ -0,0 +1,41 @@
+package com.oraxus.user.graphql;
+
+import com.oraxus.user.config.properties.RosterWriteProperties;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Marks requests that carry the roster write token ({@code roster.writes.token}) in {@value #HEADER}, by setting
+ * {@value #WRITE_ACCESS} in the GraphQL context. Roster mutations refuse to run without it, so only the gateway
+ * (or another holder of the token) can change rosters.
+ */
+@Component
+public class RosterWriteInterceptor implements WebGraphQlInterceptor {
+
+    public static final String HEADER = "X-Roster-Token";
+    public static final String WRITE_ACCESS = "rosterWriteAccess";
+
+    private final byte[] token;
+
+    public RosterWriteInterceptor(RosterWriteProperties properties) {
+        String configured = properties.getToken();
+        this.token = configured == null || configured.isEmpty() ? null : configured.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        String presented = request.getHeaders().getFirst(HEADER);
+        if (token != null && presented != null
+                && MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+            request.configureExecutionInput((input, builder) ->
+                    builder.graphQLContext(context -> context.put(WRITE_ACCESS, true)).build());
+        }
+        return chain.next(request);
+    }
+}
@@ -0,0 +1,104 @@
+package com.oraxus.user.repository;
+
+import com.oraxus.user.Member;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Members table access. Callers go through {@link MemberRepository}, which caches on top of this.
+ */
+@Repository
+public class JdbcMemberStore {
+    private static final int MAX_IDS_PER_QUERY = 500;
+    private static final RowMapper<Member> ROW_MAPPER = (rs, rowNum) ->
+            new Member(rs.getString("id"), rs.getString("first_name"), rs.getString("last_name"));
+
+    private final JdbcClient jdbcClient;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcMemberStore(JdbcClient jdbcClient, NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Member findById(String id) {
+        return jdbcClient.sql("SELECT id, first_name, last_name FROM member WHERE id = :id")
+                .param("id", id)
+                .query(ROW_MAPPER)
+                .optional()
+                .orElse(null);
+    }
+
+    public List<Member> findAllById(Collection<? extends String> ids) {
+        List<String> all = List.copyOf(ids);
+        List<Member> result = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += MAX_IDS_PER_QUERY) {
+            result.addAll(jdbcClient.sql("SELECT id, first_name, last_name FROM member WHERE id IN (:ids)")
+                    .param("ids", all.subList(from, Math.min(all.size(), from + MAX_IDS_PER_QUERY)))
+                    .query(ROW_MAPPER)
+                    .list());
+        }
+        return result;
+    }
+
+    public List<Member> findByNamePrefix(String prefix, int limit) {
+        String pattern = prefix.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + '%';
+        return jdbcClient.sql("""
+                        SELECT id, first_name, last_name FROM member
+                        WHERE LOWER(first_name) LIKE :pattern ESCAPE '\\' OR LOWER(last_name) LIKE :pattern ESCAPE '\\'
+                        ORDER BY id LIMIT :limit""")
+                .param("pattern", pattern)
+                .param("limit", limit)
+                .query(ROW_MAPPER)
+                .list();
+    }
+
+    public int count() {
+        return jdbcClient.sql("SELECT COUNT(*) FROM member").query(Integer.class).single();
+    }
+
+    @Transactional
+    public void save(Member member) {
+        saveAll(List.of(member));
+    }
+
+    /**
+     * Upsert as a batched update followed by a batched insert of the rows the update did not find.
+     */
+    @Transactional
+    public void saveAll(Collection<Member> members) {
+        List<MapSqlParameterSource> params = members.stream().map(JdbcMemberStore::params).toList();
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE member SET first_name = :firstName, last_name = :lastName WHERE id = :id",
+                params.toArray(MapSqlParameterSource[]::new));
+        List<MapSqlParameterSource> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) inserts.add(params.get(i));
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO member (id, first_name, last_name) VALUES (:id, :firstName, :lastName)",
+                    inserts.toArray(MapSqlParameterSource[]::new));
+        }
+    }
+
+    public boolean deleteById(String id) {
+        return jdbcClient.sql("DELETE FROM member WHERE id = :id").param("id", id).update() > 0;
+    }
+
+    private static MapSqlParameterSource params(Member member) {
+        return new MapSqlParameterSource()
+                .addValue("id", member.id())
+                .addValue("firstName", member.firstName())
+                .addValue("lastName", member.lastName());
+    }
+}
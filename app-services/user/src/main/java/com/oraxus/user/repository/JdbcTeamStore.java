@@ -0,0 +1,114 @@
+package com.oraxus.user.repository;
+
+import com.oraxus.user.Team;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Teams table access. Callers go through {@link TeamRepository}, which caches on top of this.
+ */
+@Repository
+public class JdbcTeamStore {
+    private static final int MAX_IDS_PER_QUERY = 500;
+    private static final RowMapper<Team> ROW_MAPPER = (rs, rowNum) ->
+            new Team(rs.getString("id"), rs.getString("name"), rs.getString("member_id"));
+
+    private final JdbcClient jdbcClient;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcTeamStore(JdbcClient jdbcClient, NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Team findById(String id) {
+        return jdbcClient.sql("SELECT id, name, member_id FROM team WHERE id = :id")
+                .param("id", id)
+                .query(ROW_MAPPER)
+                .optional()
+                .orElse(null);
+    }
+
+    public List<Team> findAllById(Collection<? extends String> ids) {
+        List<String> all = List.copyOf(ids);
+        List<Team> result = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += MAX_IDS_PER_QUERY) {
+            result.addAll(jdbcClient.sql("SELECT id, name, member_id FROM team WHERE id IN (:ids)")
+                    .param("ids", all.subList(from, Math.min(all.size(), from + MAX_IDS_PER_QUERY)))
+                    .query(ROW_MAPPER)
+                    .list());
+        }
+        return result;
+    }
+
+    /**
+     * Up to {@code limit} teams ordered by id, after {@code afterId} when given.
+     */
+    public List<Team> findPage(String afterId, int limit) {
+        if (afterId == null) {
+            return jdbcClient.sql("SELECT id, name, member_id FROM team ORDER BY id LIMIT :limit")
+                    .param("limit", limit)
+                    .query(ROW_MAPPER)
+                    .list();
+        }
+        return jdbcClient.sql("SELECT id, name, member_id FROM team WHERE id > :after ORDER BY id LIMIT :limit")
+                .param("after", afterId)
+                .param("limit", limit)
+                .query(ROW_MAPPER)
+                .list();
+    }
+
+    public List<Team> findByMemberId(String memberId) {
+        return jdbcClient.sql("SELECT id, name, member_id FROM team WHERE member_id = :memberId ORDER BY id")
+                .param("memberId", memberId)
+                .query(ROW_MAPPER)
+                .list();
+    }
+
+    public int count() {
+        return jdbcClient.sql("SELECT COUNT(*) FROM team").query(Integer.class).single();
+    }
+
+    @Transactional
+    public void save(Team team) {
+        saveAll(List.of(team));
+    }
+
+    /**
+     * Upsert as a batched update followed by a batched insert of the rows the update did not find.
+     */
+    @Transactional
+    public void saveAll(Collection<Team> teams) {
+        List<MapSqlParameterSource> params = teams.stream().map(JdbcTeamStore::params).toList();
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE team SET name = :name, member_id = :memberId WHERE id = :id",
+                params.toArray(MapSqlParameterSource[]::new));
+        List<MapSqlParameterSource> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) inserts.add(params.get(i));
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO team (id, name, member_id) VALUES (:id, :name, :memberId)",
+                    inserts.toArray(MapSqlParameterSource[]::new));
+        }
+    }
+
+    public boolean deleteById(String id) {
+        return jdbcClient.sql("DELETE FROM team WHERE id = :id").param("id", id).update() > 0;
+    }
+
+    private static MapSqlParameterSource params(Team team) {
+        return new MapSqlParameterSource()
+                .addValue("id", team.id())
+                .addValue("name", team.name())
+                .addValue("memberId", team.memberId());
+    }
+}
@@ -0,0 +1,101 @@
+package com.oraxus.user.repository;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.oraxus.user.Member;
+import com.oraxus.user.config.properties.RepositoryCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Members, read through a bounded by-id cache in front of {@link JdbcMemberStore}. Batch lookups (the member
+ * DataLoader) load all uncached ids in one query. Writes go to the database first and then invalidate the id.
+ * Name searches are not cached.
+ */
+@Repository
+public class MemberRepository {
+
+    private final JdbcMemberStore store;
+    private final LoadingCache<String, Optional<Member>> byId;
+
+    public MemberRepository(JdbcMemberStore store, RepositoryCacheProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxMembers())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Optional<Member> load(String id) {
+                        return Optional.ofNullable(store.findById(id));
+                    }
+
+                    @Override
+                    public Map<String, Optional<Member>> loadAll(Set<? extends String> ids) {
+                        Map<String, Optional<Member>> result = HashMap.newHashMap(ids.size());
+                        for (String id : ids) {
+                            result.put(id, Optional.empty());
+                        }
+                        for (Member member : store.findAllById(ids)) {
+                            result.put(member.id(), Optional.of(member));
+                        }
+                        return result;
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "members.byId");
+    }
+
+    /**
+     * Look up a member by primary key; returns null when unknown.
+     */
+    public Member findById(String id) {
+        if (id == null) return null;
+        return byId.get(id).orElse(null);
+    }
+
+    /**
+     * Batch lookup by primary key; unknown ids are absent from the result.
+     */
+    public Map<String, Member> findAllById(Collection<String> ids) {
+        Map<String, Member> result = HashMap.newHashMap(ids.size());
+        byId.getAll(ids).forEach((id, member) -> member.ifPresent(m -> result.put(id, m)));
+        return result;
+    }
+
+    /**
+     * Members whose first or last name starts with the given prefix (case-insensitive), ordered by id.
+     */
+    public List<Member> findByNamePrefix(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty() || limit <= 0) return List.of();
+        return store.findByNamePrefix(prefix, limit);
+    }
+
+    public int count() {
+        return store.count();
+    }
+
+    public void save(Member member) {
+        store.save(member);
+        byId.invalidate(member.id());
+    }
+
+    public void saveAll(Collection<Member> members) {
+        store.saveAll(members);
+        byId.invalidateAll(members.stream().map(Member::id).toList());
+    }
+
+    public boolean deleteById(String id) {
+        boolean deleted = store.deleteById(id);
+        byId.invalidate(id);
+        return deleted;
+    }
+}
@@ -0,0 +1,152 @@
+package com.oraxus.user.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.oraxus.user.Team;
+import com.oraxus.user.config.properties.RepositoryCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Teams, read through bounded caches in front of {@link JdbcTeamStore}.
+ * <p>
+ * Lookups by id are cached per id (misses included) and batch lookups load all uncached ids in one query.
+ * Pages and per-member lists are cached briefly. Writes go to the database first and then invalidate what they
+ * affect, so this instance never serves a stale row after its own write. Instances sharing the database see each
+ * other's writes once their cached copies expire, within the TTL; instances with databases of their own never do.
+ */
+@Repository
+public class TeamRepository {
+
+    private final JdbcTeamStore store;
+    private final LoadingCache<String, Optional<Team>> byId;
+    private final Cache<String, List<Team>> byMemberId;
+    private final Cache<PageKey, List<Team>> pages;
+
+    public TeamRepository(JdbcTeamStore store, RepositoryCacheProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTeams())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Optional<Team> load(String id) {
+                        return Optional.ofNullable(store.findById(id));
+                    }
+
+                    @Override
+                    public Map<String, Optional<Team>> loadAll(Set<? extends String> ids) {
+                        Map<String, Optional<Team>> result = HashMap.newHashMap(ids.size());
+                        for (String id : ids) {
+                            result.put(id, Optional.empty());
+                        }
+                        for (Team team : store.findAllById(ids)) {
+                            result.put(team.id(), Optional.of(team));
+                        }
+                        return result;
+                    }
+                });
+        this.byMemberId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxQueries())
+                .expireAfterWrite(properties.getQueryTtl())
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxQueries())
+                .expireAfterWrite(properties.getQueryTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "teams.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, byMemberId, "teams.byMemberId");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "teams.pages");
+    }
+
+    /**
+     * Look up a team by primary key; returns null when unknown.
+     */
+    public Team findById(String id) {
+        if (id == null) return null;
+        return byId.get(id).orElse(null);
+    }
+
+    /**
+     * Batch lookup by primary key, preserving the order of the requested ids and skipping unknown ones.
+     */
+    public List<Team> findAllById(Collection<String> ids) {
+        Map<String, Optional<Team>> found = byId.getAll(ids);
+        List<Team> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Optional<Team> team = found.get(id);
+            if (team != null && team.isPresent()) result.add(team.get());
+        }
+        return result;
+    }
+
+    /**
+     * Keyset page of teams ordered by id, starting after the given id (or from the start when null).
+     * Fetches one extra row so callers can tell whether another page exists.
+     */
+    public List<Team> findPage(String afterId, int limit) {
+        return pages.get(new PageKey(afterId, limit), key -> List.copyOf(store.findPage(afterId, limit + 1)));
+    }
+
+    /**
+     * Teams that the given member plays for.
+     */
+    public List<Team> findByMemberId(String memberId) {
+        if (memberId == null) return List.of();
+        return byMemberId.get(memberId, id -> List.copyOf(store.findByMemberId(id)));
+    }
+
+    public int count() {
+        return store.count();
+    }
+
+    public void save(Team team) {
+        store.save(team);
+        byId.invalidate(team.id());
+        invalidateQueries();
+    }
+
+    public void saveAll(Collection<Team> teams) {
+        store.saveAll(teams);
+        byId.invalidateAll(teams.stream().map(Team::id).toList());
+        invalidateQueries();
+    }
+
+    public boolean deleteById(String id) {
+        boolean deleted = store.deleteById(id);
+        byId.invalidate(id);
+        invalidateQueries();
+        return deleted;
+    }
+
+    /**
+     * Drop everything cached, for changes made behind this repository's back (e.g. a deleted member clearing
+     * {@code member_id} on its teams).
+     */
+    public void invalidateAll() {
+        byId.invalidateAll();
+        invalidateQueries();
+    }
+
+    private void invalidateQueries() {
+        byMemberId.invalidateAll();
+        pages.invalidateAll();
+    }
+
+    private record PageKey(String afterId, int limit) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.oraxus.user.service;
+
+import com.oraxus.user.Member;
+import com.oraxus.user.RosterEvent;
+import com.oraxus.user.Team;
+import com.oraxus.user.event.RosterEventBus;
+import com.oraxus.user.repository.MemberRepository;
+import com.oraxus.user.repository.TeamRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Roster writes. Every change is published to {@link RosterEventBus} after it is stored.
+ * <p>
+ * Writes to the same team or member hold a lock across the store and the publish, so subscribers see the changes to
+ * one id in the order they were stored and the last event matches what is stored. Publishing never blocks, so the
+ * lock is held no longer than the write itself.
+ */
+@Service
+public class RosterService {
+
+    // Striped by id; a power of two so the hash can be masked
+    private static final int LOCK_STRIPES = 64;
+
+    private final Object[] teamLocks = newLocks();
+    private final Object[] memberLocks = newLocks();
+    private final TeamRepository teamRepository;
+    private final MemberRepository memberRepository;
+    private final RosterEventBus eventBus;
+
+    public RosterService(TeamRepository teamRepository, MemberRepository memberRepository, RosterEventBus eventBus) {
+        this.teamRepository = teamRepository;
+        this.memberRepository = memberRepository;
+        this.eventBus = eventBus;
+    }
+
+    public Team saveTeam(Team team) {
+        synchronized (lock(teamLocks, team.id())) {
+            teamRepository.save(team);
+            eventBus.publish(new RosterEvent.TeamEvent(RosterEvent.ChangeType.SAVED, team));
+        }
+        return team;
+    }
+
+    public boolean deleteTeam(String id) {
+        synchronized (lock(teamLocks, id)) {
+            Team team = teamRepository.findById(id);
+            if (team == null || !teamRepository.deleteById(id)) {
+                return false;
+            }
+            eventBus.publish(new RosterEvent.TeamEvent(RosterEvent.ChangeType.DELETED, team));
+        }
+        return true;
+    }
+
+    public Member saveMember(Member member) {
+        synchronized (lock(memberLocks, member.id())) {
+            memberRepository.save(member);
+            eventBus.publish(new RosterEvent.MemberEvent(RosterEvent.ChangeType.SAVED, member));
+        }
+        return member;
+    }
+
+    public boolean deleteMember(String id) {
+        synchronized (lock(memberLocks, id)) {
+            Member member = memberRepository.findById(id);
+            if (member == null || !memberRepository.deleteById(id)) {
+                return false;
+            }
+            // the database cleared member_id on this member's teams
+            teamRepository.invalidateAll();
+            eventBus.publish(new RosterEvent.MemberEvent(RosterEvent.ChangeType.DELETED, member));
+        }
+        return true;
+    }
+
+    private static Object lock(Object[] locks, String id) {
+        int hash = id.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    private static Object[] newLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+}
@@ -0,0 +1,11 @@
+-- Demo roster (H2 syntax), applied on every start by the demo profile and in tests
+MERGE INTO member (id, first_name, last_name) KEY (id) VALUES
+    ('player1', 'sathish', 'kumar'),
+    ('player2', 'Murali', 'shanmugam'),
+    ('player3', 'Vasanth', 'lion'),
+    ('player4', 'Vinod', 'Mulla');
+
+MERGE INTO team (id, name, member_id) KEY (id) VALUES
+    ('team1', 'Vikings-HT', 'player1'),
+    ('team2', 'Vikings-PL', 'player2'),
+    ('team3', 'Vikings-T20', 'player3');
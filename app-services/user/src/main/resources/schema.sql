@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS member (
+    id         VARCHAR(64) PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS team (
+    id        VARCHAR(64) PRIMARY KEY,
+    name      VARCHAR(255) NOT NULL,
+    member_id VARCHAR(64) REFERENCES member (id) ON DELETE SET NULL
+);
+
+CREATE INDEX IF NOT EXISTS team_member_id_idx ON team (member_id);
+
+-- Application records of Cognito users, created by /api/users/ensure
+CREATE TABLE IF NOT EXISTS user_account (
+    username   VARCHAR(255) PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL
+);
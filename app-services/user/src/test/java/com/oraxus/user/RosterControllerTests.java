@@ -0,0 +1,68 @@
+package com.oraxus.user;
+
+import com.oraxus.user.graphql.RosterWriteInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "roster.writes.token=roster-secret")
+class RosterControllerTests {
+
+    private static final String DELETE = "{\"query\":\"mutation { deleteTeam(id: \\\"team7\\\") }\"}";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvcTester mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcTester.from(context);
+    }
+
+    @Test
+    void mutationsWithoutTheRosterTokenAreForbidden() {
+        assertForbidden(null);
+        assertForbidden("wrong");
+    }
+
+    @Test
+    void mutationsWithTheRosterTokenRun() {
+        assertThat(mutate("roster-secret"))
+                .hasStatusOk()
+                .bodyJson()
+                .extractingPath("$.data.deleteTeam").isEqualTo(false);
+    }
+
+    @Test
+    void queriesNeedNoToken() {
+        assertThat(mvc.post().uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content("{\"query\":\"{ teams(first: 1) { edges { cursor } } }\"}"))
+                .hasStatusOk()
+                .bodyJson()
+                .extractingPath("$.data.teams.edges").asArray().hasSize(1);
+    }
+
+    private void assertForbidden(String token) {
+        assertThat(mutate(token))
+                .hasStatusOk()
+                .bodyJson()
+                .extractingPath("$.errors[0].extensions.classification").isEqualTo("FORBIDDEN");
+    }
+
+    private MockMvcTester.MockMvcRequestBuilder mutate(String token) {
+        MockMvcTester.MockMvcRequestBuilder request = mvc.post().uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(DELETE);
+        return token != null ? request.header(RosterWriteInterceptor.HEADER, token) : request;
+    }
+}
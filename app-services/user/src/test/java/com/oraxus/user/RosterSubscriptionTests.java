@@ -0,0 +1,134 @@
+package com.oraxus.user;
+
+import com.oraxus.user.config.properties.SubscriptionProperties;
+import com.oraxus.user.event.RosterEventBus;
+import com.oraxus.user.graphql.RosterWriteInterceptor;
+import com.oraxus.user.repository.TeamRepository;
+import com.oraxus.user.service.RosterService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RosterSubscriptionTests {
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private RosterService rosterService;
+
+    @Autowired
+    private RosterEventBus eventBus;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @AfterEach
+    void removeSavedTeams() {
+        rosterService.deleteTeam("team8");
+        rosterService.deleteTeam("team9");
+    }
+
+    @Test
+    void savedTeamIsPushedToSubscribersOfThatTeam() throws Exception {
+        // Stand in for RosterWriteInterceptor, which only runs for requests over the web transports
+        ExecutionGraphQlServiceTester tester = ExecutionGraphQlServiceTester.builder(graphQlService)
+                .configureExecutionInput((input, builder) -> builder
+                        .graphQLContext(context -> context.put(RosterWriteInterceptor.WRITE_ACCESS, true))
+                        .build())
+                .build();
+
+        CompletableFuture<RosterEvent.TeamEvent> received = tester
+                .document("subscription { teamChanged(id: \"team9\") { type team { id name } } }")
+                .executeSubscription()
+                .toFlux("teamChanged", RosterEvent.TeamEvent.class)
+                .next()
+                .toFuture();
+
+        tester.document("mutation { saveTeam(input: {id: \"team8\", name: \"Other\"}) { id } }").executeAndVerify();
+        // the subscription may still be attaching to the event bus, so keep saving until it sees a change
+        for (int attempt = 0; attempt < 50 && !received.isDone(); attempt++) {
+            tester.document("mutation { saveTeam(input: {id: \"team9\", name: \"Strikers\"}) { id } }")
+                    .executeAndVerify();
+            Thread.sleep(20);
+        }
+
+        RosterEvent.TeamEvent event = received.get(5, TimeUnit.SECONDS);
+        assertThat(event.type()).isEqualTo(RosterEvent.ChangeType.SAVED);
+        assertThat(event.team().id()).isEqualTo("team9");
+        assertThat(event.team().name()).isEqualTo("Strikers");
+    }
+
+    @Test
+    void concurrentSavesOfATeamArePublishedInTheOrderTheyWereStored() throws Exception {
+        List<String> published = Collections.synchronizedList(new ArrayList<>());
+        Disposable subscription = eventBus
+                .events(RosterEvent.TeamEvent.class, event -> event.team().id().equals("team8"))
+                .subscribe(event -> published.add(event.team().name()));
+
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 16; i++) {
+                String name = "Name " + i;
+                executor.submit(() -> {
+                    start.await();
+                    return rosterService.saveTeam(new Team("team8", name, null));
+                });
+            }
+            start.countDown();
+        }
+        subscription.dispose();
+
+        // the last event a subscriber saw is the state that was stored last
+        assertThat(published).hasSize(16);
+        assertThat(published.getLast()).isEqualTo(teamRepository.findById("team8").name());
+    }
+
+    @Test
+    void slowSubscriberKeepsOnlyTheNewestEvents() {
+        SubscriptionProperties properties = new SubscriptionProperties();
+        properties.setBufferSize(2);
+        RosterEventBus bus = new RosterEventBus(properties, new SimpleMeterRegistry());
+
+        List<String> received = new ArrayList<>();
+        BaseSubscriber<RosterEvent.TeamEvent> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // no demand until the test asks for it
+            }
+
+            @Override
+            protected void hookOnNext(RosterEvent.TeamEvent event) {
+                received.add(event.team().id());
+            }
+        };
+        bus.events(RosterEvent.TeamEvent.class, event -> true).subscribe(subscriber);
+
+        for (int i = 1; i <= 5; i++) {
+            bus.publish(new RosterEvent.TeamEvent(RosterEvent.ChangeType.SAVED, new Team("team" + i, "Team " + i, null)));
+        }
+        subscriber.request(10);
+
+        assertThat(received).containsExactly("team4", "team5");
+        subscriber.dispose();
+    }
+}
@@ -0,0 +1,93 @@
+package com.oraxus.user;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "graphql.metrics.field-timing-sample-rate=1")
+class TeamControllerTests {
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void teamsArePagedWithCursors() {
+        ExecutionGraphQlServiceTester tester = ExecutionGraphQlServiceTester.create(graphQlService);
+
+        String endCursor = tester.documentName("teamsPage")
+                .variable("first", 2)
+                .execute()
+                .path("teams.edges[*].node.id").entityList(String.class).containsExactly("team1", "team2")
+                .path("teams.edges[0].node.member.firstName").entity(String.class).isEqualTo("sathish")
+                .path("teams.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(true)
+                .path("teams.pageInfo.endCursor").entity(String.class).get();
+
+        tester.documentName("teamsPage")
+                .variable("first", 2)
+                .variable("after", endCursor)
+                .execute()
+                .path("teams.edges[*].node.id").entityList(String.class).containsExactly("team3")
+                .path("teams.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(false);
+    }
+
+    @Test
+    void badPagingArgumentsAreClientErrors() {
+        assertBadRequest(Map.of("after", "not base64!"));
+        assertBadRequest(Map.of("first", 0));
+    }
+
+    @Test
+    void teamsAreLookedUpByAtMostTheConfiguredNumberOfIds() {
+        ExecutionGraphQlServiceTester.create(graphQlService)
+                .documentName("teamsByIds")
+                .variable("ids", List.of("team1", "team3"))
+                .execute()
+                .path("teamsByIds[*].id").entityList(String.class).containsExactlyInAnyOrder("team1", "team3");
+
+        // graphql.cost.max-ids defaults to 100
+        assertBadRequest("teamsByIds", Map.of("ids", IntStream.rangeClosed(1, 101).mapToObj(i -> "team" + i).toList()));
+    }
+
+    @Test
+    void resolverFetchesAreCountedPerRequest() {
+        ExecutionGraphQlServiceTester.create(graphQlService)
+                .documentName("teamsPage")
+                .variable("first", 3)
+                .execute()
+                .path("teams.edges[*].node.id").entityList(String.class).hasSize(3);
+
+        DistributionSummary memberFetches = meterRegistry.find("graphql.field.fetches").tag("field", "Team.member").summary();
+        assertThat(memberFetches).isNotNull();
+        assertThat(memberFetches.max()).isEqualTo(3);
+        assertThat(meterRegistry.find("graphql.field").tag("field", "Query.teams").timer()).isNotNull();
+        assertThat(meterRegistry.find("graphql.phase").tag("phase", "execute").timer()).isNotNull();
+    }
+
+    private void assertBadRequest(Map<String, Object> variables) {
+        assertBadRequest("teamsPage", variables);
+    }
+
+    private void assertBadRequest(String document, Map<String, Object> variables) {
+        ExecutionGraphQlServiceTester.create(graphQlService)
+                .documentName(document)
+                .variables(v -> v.putAll(variables))
+                .execute()
+                .errors()
+                .satisfy(errors -> assertThat(errors).singleElement()
+                        .satisfies(error -> assertThat(error.getErrorType()).isEqualTo(ErrorType.BAD_REQUEST)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.oraxus.user.account;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserAccountControllerTests {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    private MockMvcTester mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcTester.from(context);
+    }
+
+    @Test
+    void ensureCreatesEachUserOnceAndStoresThem() {
+        assertEnsured("{\"usernames\":[\"ensure-a\",\"ensure-b\",\"ensure-a\"],\"username\":\"ensure-c\"}", 4, 3);
+        assertEnsured("{\"usernames\":[\"ensure-a\",\"ensure-d\"]}", 2, 1);
+
+        assertThat(userAccountRepository.findByUsername("ensure-b")).isNotNull();
+        assertThat(userAccountRepository.findByUsername("ensure-e")).isNull();
+    }
+
+    @Test
+    void oversizedBatchesAreRejected() {
+        String usernames = IntStream.range(0, 1001).mapToObj(i -> "\"big-" + i + "\"").collect(Collectors.joining(","));
+
+        assertThat(mvc.post().uri("/api/users/ensure")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"usernames\":[" + usernames + "]}"))
+                .hasStatus(HttpStatus.BAD_REQUEST);
+        assertThat(userAccountRepository.findByUsername("big-0")).isNull();
+    }
+
+    @Test
+    void ndjsonUploadsAreEnsuredLineByLine() {
+        assertThat(mvc.post().uri("/api/users/ensure")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"username\":\"stream-a\"}\n\n{\"usernames\":[\"stream-b\",\"stream-a\"]}\n"))
+                .hasStatusOk()
+                .bodyJson()
+                .convertTo(UserAccountController.EnsureUsersResponse.class)
+                .isEqualTo(new UserAccountController.EnsureUsersResponse(3, 2));
+    }
+
+    private void assertEnsured(String body, int requested, int created) {
+        assertThat(mvc.post().uri("/api/users/ensure")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .hasStatusOk()
+                .bodyJson()
+                .convertTo(UserAccountController.EnsureUsersResponse.class)
+                .isEqualTo(new UserAccountController.EnsureUsersResponse(requested, created));
+    }
+}
@@ -0,0 +1,40 @@
+package com.oraxus.user.account;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserAccountRepositoryTests {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void accountsSurviveReopeningTheDatabaseFile() {
+        UserAccountRepository before = open();
+        assertThat(before.ensureAll(List.of("alice", "bob", "alice"))).isEqualTo(2);
+
+        // A new data source, as after a restart: every connection of the first one has been closed
+        UserAccountRepository after = open();
+        assertThat(after.count()).isEqualTo(2);
+        assertThat(after.findByUsername("alice")).isNotNull();
+        assertThat(after.ensureAll(List.of("alice", "carol"))).isEqualTo(1);
+    }
+
+    // The same kind of database file the service opens under user.data-dir, with schema.sql applied on start
+    private UserAccountRepository open() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:file:" + dataDir.resolve("user"), "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return new UserAccountRepository(JdbcClient.create(dataSource), new NamedParameterJdbcTemplate(dataSource));
+    }
+}
@@ -0,0 +1,77 @@
+package com.oraxus.user.event;
+
+import com.oraxus.user.RosterEvent;
+import com.oraxus.user.Team;
+import com.oraxus.user.config.properties.RosterWebhookProperties;
+import com.oraxus.user.config.properties.SubscriptionProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RosterChangeNotifierTests {
+
+    private final List<HttpServer> gateways = new ArrayList<>();
+    private RosterChangeNotifier notifier;
+
+    @AfterEach
+    void tearDown() {
+        if (notifier != null) {
+            notifier.stop();
+        }
+        gateways.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    void everyGatewayInstanceIsToldEvenWhenOneFails() throws Exception {
+        BlockingQueue<String> first = new LinkedBlockingQueue<>();
+        BlockingQueue<String> second = new LinkedBlockingQueue<>();
+        RosterWebhookProperties properties = new RosterWebhookProperties();
+        properties.setUrls(List.of(gateway(first, 500), gateway(second, 200)));
+        properties.setToken("cache-secret");
+        properties.setBatchWindow(Duration.ofMillis(10));
+        RosterEventBus eventBus = new RosterEventBus(new SubscriptionProperties(), new SimpleMeterRegistry());
+        notifier = new RosterChangeNotifier(eventBus, properties);
+        notifier.start();
+
+        eventBus.publish(new RosterEvent.TeamEvent(RosterEvent.ChangeType.SAVED, new Team("team1", "Vikings", null)));
+        assertThat(first.poll(5, TimeUnit.SECONDS)).contains("team1");
+        assertThat(second.poll(5, TimeUnit.SECONDS)).contains("team1").contains("teams");
+
+        // The failed call to the first instance does not hold back later batches
+        eventBus.publish(new RosterEvent.TeamEvent(RosterEvent.ChangeType.DELETED, new Team("team2", "Raiders", null)));
+        assertThat(first.poll(5, TimeUnit.SECONDS)).contains("team2");
+        assertThat(second.poll(5, TimeUnit.SECONDS)).contains("team2");
+    }
+
+    // An invalidation endpoint that records request bodies carrying the token and answers with status
+    private String gateway(BlockingQueue<String> received, int status) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/graphql/cache/invalidate", exchange -> {
+            try (exchange) {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                if ("cache-secret".equals(exchange.getRequestHeaders().getFirst("X-Invalidation-Token"))) {
+                    received.add(body);
+                }
+                exchange.sendResponseHeaders(status, -1);
+            }
+        });
+        server.start();
+        gateways.add(server);
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort()
+                + "/graphql/cache/invalidate";
+    }
+}
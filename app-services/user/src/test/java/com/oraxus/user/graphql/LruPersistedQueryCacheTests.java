@@ -0,0 +1,57 @@
+package com.oraxus.user.graphql;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryNotPresent;
+import graphql.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LruPersistedQueryCacheTests {
+
+    private final AtomicInteger parses = new AtomicInteger();
+
+    private PreparsedDocumentEntry lookup(LruPersistedQueryCache cache, String id, String query) {
+        ExecutionInput input = ExecutionInput.newExecutionInput().query(query).build();
+        return cache.getPersistedQueryDocumentAsync(id, input, text -> {
+            parses.incrementAndGet();
+            return new PreparsedDocumentEntry(Parser.parse(text));
+        }).join();
+    }
+
+    @Test
+    void repeatedQueriesAreParsedOnce() {
+        LruPersistedQueryCache cache = new LruPersistedQueryCache(10);
+
+        lookup(cache, "a", "{ teamById(id: \"team1\") { id } }");
+        lookup(cache, "a", "{ teamById(id: \"team1\") { id } }");
+
+        assertThat(parses).hasValue(1);
+    }
+
+    @Test
+    void hashOnlyRequestForUnknownQueryIsRejected() {
+        LruPersistedQueryCache cache = new LruPersistedQueryCache(10);
+
+        assertThatThrownBy(() -> lookup(cache, "unknown", ""))
+                .isInstanceOf(PersistedQueryNotPresent.class);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        LruPersistedQueryCache cache = new LruPersistedQueryCache(2);
+
+        lookup(cache, "a", "{ a }");
+        lookup(cache, "b", "{ b }");
+        lookup(cache, "a", "{ a }");
+        lookup(cache, "c", "{ c }");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThatThrownBy(() -> lookup(cache, "b", "")).isInstanceOf(PersistedQueryNotPresent.class);
+        assertThat(lookup(cache, "a", "").getDocument()).isNotNull();
+    }
+}
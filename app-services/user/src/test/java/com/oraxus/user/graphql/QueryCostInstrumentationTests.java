@@ -0,0 +1,97 @@
+package com.oraxus.user.graphql;
+
+import com.oraxus.user.config.properties.QueryCostProperties;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCostInstrumentationTests {
+
+    private static final String SDL = """
+            type Query { teams(first: Int): [Team] team: Team }
+            type Team { id: ID name: String parent: Team }
+            """;
+    private static final List<Map<String, Object>> TEAMS = List.of(Map.of("id", "team1", "name", "Rovers"));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final QueryCostProperties properties = new QueryCostProperties();
+
+    @Test
+    void deepQueriesAreRejected() {
+        properties.setMaxDepth(3);
+        GraphQL graphQl = graphQl(env -> TEAMS);
+
+        assertThat(graphQl.execute("{ team { parent { id } } }").getErrors()).isEmpty();
+        assertThat(messages(graphQl.execute("{ team { parent { parent { id } } } }"))).singleElement()
+                .asString().contains("depth 4");
+        assertThat(rejected("depth")).isEqualTo(1);
+    }
+
+    @Test
+    void costUsesTheClampedPageSize() {
+        properties.setMaxCost(250);
+        GraphQL graphQl = graphQl(env -> TEAMS);
+
+        // 1 + 100 * 2: the resolver never returns more than 100 teams, whatever "first" asks for
+        assertThat(graphQl.execute("{ teams(first: 1000000) { id name } }").getErrors()).isEmpty();
+        assertThat(messages(graphQl.execute("{ teams(first: 100) { id name parent { id } } }"))).singleElement()
+                .asString().contains("cost 401");
+        assertThat(rejected("cost")).isEqualTo(1);
+
+        // 1 + 50 * 4 once the configured page size is smaller
+        properties.setMaxPageSize(50);
+        assertThat(graphQl.execute("{ teams(first: 100) { id name parent { id } } }").getErrors()).isEmpty();
+    }
+
+    @Test
+    void inFlightCostIsAdmittedUpToTheBudgetAndReleased() {
+        properties.setMaxInFlightCost(300);
+        CompletableFuture<Object> release = new CompletableFuture<>();
+        GraphQL graphQl = graphQl(env -> release.thenApply(v -> TEAMS));
+        String query = "{ teams(first: 100) { id name } }";
+
+        CompletableFuture<ExecutionResult> running = graphQl.executeAsync(b -> b.query(query));
+        assertThat(inFlight()).isEqualTo(201);
+        assertThat(messages(graphQl.execute(query))).singleElement().asString().contains("busy");
+        assertThat(rejected("busy")).isEqualTo(1);
+
+        release.complete(null);
+        assertThat(running.join().getErrors()).isEmpty();
+        assertThat(inFlight()).isZero();
+        assertThat(graphQl.execute(query).getErrors()).isEmpty();
+    }
+
+    private GraphQL graphQl(DataFetcher<?> teams) {
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", type -> type.dataFetcher("teams", teams)
+                        .dataFetcher("team", env -> Map.of("id", "team1", "parent", Map.of("id", "team2"))))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SDL), wiring);
+        return GraphQL.newGraphQL(schema).instrumentation(new QueryCostInstrumentation(properties, registry)).build();
+    }
+
+    private static List<String> messages(ExecutionResult result) {
+        return result.getErrors().stream().map(GraphQLError::getMessage).toList();
+    }
+
+    private double rejected(String reason) {
+        return registry.get("graphql.query.rejected").tag("reason", reason).counter().count();
+    }
+
+    private double inFlight() {
+        return registry.get("graphql.query.cost.in.flight").gauge().value();
+    }
+}
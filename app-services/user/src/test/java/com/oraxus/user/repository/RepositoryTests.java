@@ -0,0 +1,91 @@
+package com.oraxus.user.repository;
+
+import com.oraxus.user.Member;
+import com.oraxus.user.Team;
+import com.oraxus.user.config.properties.RepositoryCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmbeddedDatabase database;
+    private JdbcClient jdbcClient;
+    private MemberRepository members;
+    private TeamRepository teams;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcClient = JdbcClient.create(database);
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(database);
+        RepositoryCacheProperties properties = new RepositoryCacheProperties();
+        members = new MemberRepository(new JdbcMemberStore(jdbcClient, jdbcTemplate), properties, meterRegistry);
+        teams = new TeamRepository(new JdbcTeamStore(jdbcClient, jdbcTemplate), properties, meterRegistry);
+
+        members.saveAll(List.of(
+                new Member("p1", "Sathish", "Kumar"),
+                new Member("p2", "Sanjay", "Kumaran"),
+                new Member("p3", "Vinod", "Mulla")
+        ));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void memberLookupByIdAndNamePrefix() {
+        assertThat(members.findById("p3").firstName()).isEqualTo("Vinod");
+        assertThat(members.findById("missing")).isNull();
+        assertThat(members.findAllById(List.of("p1", "p3", "missing"))).containsOnlyKeys("p1", "p3");
+        assertThat(members.findByNamePrefix("sa", 10)).extracting(Member::id).containsExactly("p1", "p2");
+        assertThat(members.findByNamePrefix("KUM", 10)).extracting(Member::id).containsExactly("p1", "p2");
+        assertThat(members.findByNamePrefix("kum", 1)).hasSize(1);
+        assertThat(members.findByNamePrefix("%", 10)).isEmpty();
+    }
+
+    @Test
+    void readsAreCachedAndWritesInvalidate() {
+        teams.saveAll(List.of(
+                new Team("t1", "Vikings-HT", "p1"),
+                new Team("t2", "Vikings-PL", "p1")
+        ));
+        assertThat(teams.findByMemberId("p1")).hasSize(2);
+        assertThat(teams.findById("t2").name()).isEqualTo("Vikings-PL");
+
+        // a change made directly in the database is not visible through the cache...
+        jdbcClient.sql("UPDATE team SET name = 'renamed' WHERE id = 't2'").update();
+        assertThat(teams.findById("t2").name()).isEqualTo("Vikings-PL");
+
+        // ...but a write through the repository is
+        teams.save(new Team("t2", "Vikings-PL", "p2"));
+        assertThat(teams.findById("t2").memberId()).isEqualTo("p2");
+        assertThat(teams.findByMemberId("p1")).extracting(Team::id).containsExactly("t1");
+        assertThat(teams.findByMemberId("p2")).extracting(Team::id).containsExactly("t2");
+        assertThat(teams.findPage(null, 1)).extracting(Team::id).containsExactly("t1", "t2");
+
+        assertThat(teams.deleteById("t1")).isTrue();
+        assertThat(teams.findById("t1")).isNull();
+        assertThat(teams.findByMemberId("p1")).isEmpty();
+        assertThat(teams.count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "teams.byId").tag("result", "hit").functionCounter().count())
+                .isPositive();
+    }
+}